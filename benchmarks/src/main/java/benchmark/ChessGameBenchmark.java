@@ -0,0 +1,116 @@
+package benchmark;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move validation and game status checks on the shared chess rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+
+    private ChessGame start;
+    private ChessGame middlegame;
+    private ChessGame checkmate;
+    private ChessMove reply;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        start = Positions.start();
+        middlegame = Positions.middlegame();
+        checkmate = Positions.checkmate();
+        reply = Positions.move("c1d2");  // blocks the Bb4 check
+    }
+
+    @Benchmark
+    public void validMovesEverySquare(Blackhole blackhole) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                blackhole.consume(middlegame.validMoves(new ChessPosition(row, col)));
+            }
+        }
+    }
+
+    @Benchmark
+    public Collection<ChessMove> legalMovesStart() {
+        return start.legalMoves();
+    }
+
+    @Benchmark
+    public Collection<ChessMove> legalMovesMiddlegame() {
+        return middlegame.legalMoves();
+    }
+
+    @Benchmark
+    public int generateLegalMovesMiddlegame() {
+        return middlegame.generateLegalMoves(moves);
+    }
+
+    @Benchmark
+    public ChessGame makeMoveAndUnmake() throws InvalidMoveException {
+        middlegame.makeMove(reply);
+        middlegame.unmakeMove();
+        return middlegame;
+    }
+
+    // The cached attack map against a fresh attackersTo scan of the king square,
+    // both on a position whose map is already built and right after a move
+    @Benchmark
+    public boolean isInCheck() {
+        return middlegame.isInCheck(ChessGame.TeamColor.BLACK);
+    }
+
+    @Benchmark
+    public boolean isInCheckAttackersTo() {
+        return inCheckByAttackers(middlegame, ChessGame.TeamColor.BLACK);
+    }
+
+    @Benchmark
+    public boolean isInCheckAfterMove() throws InvalidMoveException {
+        middlegame.makeMove(reply);
+        boolean check = middlegame.isInCheck(ChessGame.TeamColor.BLACK);
+        middlegame.unmakeMove();
+        return check;
+    }
+
+    @Benchmark
+    public boolean isInCheckAttackersToAfterMove() throws InvalidMoveException {
+        middlegame.makeMove(reply);
+        boolean check = inCheckByAttackers(middlegame, ChessGame.TeamColor.BLACK);
+        middlegame.unmakeMove();
+        return check;
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return middlegame.isInStalemate(ChessGame.TeamColor.WHITE);
+    }
+
+    private static boolean inCheckByAttackers(ChessGame game, ChessGame.TeamColor color) {
+        ChessBoard board = game.getBoard();
+        int king = Long.numberOfTrailingZeros(board.pieces(color, ChessPiece.PieceType.KING));
+        ChessGame.TeamColor them = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        return board.attackersTo(king, them, board.occupied()) != 0;
+    }
+}
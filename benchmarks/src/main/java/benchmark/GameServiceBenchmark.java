@@ -0,0 +1,54 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.MoveList;
+import dataaccess.DataAccessException;
+import dataaccess.dao.AuthDAO;
+import dataaccess.memory.MemoryGameDAO;
+import org.openjdk.jmh.annotations.*;
+import service.GameService;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The server-side cost of a move through GameService against the in-memory
+ * DAOs: loading the game (latest snapshot plus the moves logged since) and
+ * logging the move, as the websocket handler does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameServiceBenchmark {
+
+    private final MoveList moves = new MoveList();
+    private final Random random = new Random(24);
+    private MemoryGameDAO gameDAO;
+    private GameService gameService;
+    private int gameId;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        gameDAO = new MemoryGameDAO();
+        gameService = new GameService(gameDAO, new AuthDAO());
+        gameId = gameDAO.createGame("benchmark").gameID();
+    }
+
+    @Benchmark
+    public ChessGame playMove() throws DataAccessException {
+        ChessGame game = gameService.getGameState(gameId);
+        // Random games of up to a hundred moves, then a new one
+        if (game.getFullmoveNumber() > 100 || game.generateLegalMoves(moves) == 0) {
+            gameId = gameDAO.createGame("benchmark").gameID();
+            game = gameService.getGameState(gameId);
+            game.generateLegalMoves(moves);
+        }
+        int move = moves.get(random.nextInt(moves.size()));
+        game.makeMoveUnchecked(move);
+        gameService.recordMove(gameId, game, move);
+        return game;
+    }
+}
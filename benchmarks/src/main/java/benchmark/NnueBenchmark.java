@@ -0,0 +1,82 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.eval.NnueEvaluator;
+import chess.eval.NnueNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NNUE evaluations per second after a move, with accumulators updated
+ * incrementally through the board listener against rebuilt from scratch.
+ * <p>
+ * Runs with the Vector API module added; append
+ * {@code -jvmArgsAppend -Dchess.nnue.vector=false} to measure the scalar kernel.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class NnueBenchmark {
+
+    // A typical size for a small CPU network
+    private static final int HIDDEN = 256;
+
+    private ChessGame followed;
+    private ChessGame scanned;
+    private NnueEvaluator incremental;
+    private NnueEvaluator fullRefresh;
+    private final MoveList moves = new MoveList();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        NnueNetwork network = randomNetwork();
+        // The open Italian game before the bishop check, so most replies are ordinary piece moves
+        followed = Positions.play("e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6",
+                "d2d4", "e5d4", "c3d4");
+        scanned = new ChessGame(followed);
+        followed.generateLegalMoves(moves);
+
+        incremental = new NnueEvaluator(network);
+        incremental.attach(followed.getBoard());
+        fullRefresh = new NnueEvaluator(network);
+    }
+
+    @Benchmark
+    public int incremental() {
+        return afterMove(followed, incremental);
+    }
+
+    @Benchmark
+    public int fullRefresh() {
+        return afterMove(scanned, fullRefresh);
+    }
+
+    private int afterMove(ChessGame game, NnueEvaluator evaluator) {
+        game.makeMoveUnchecked(moves.get(next));
+        next = next + 1 == moves.size() ? 0 : next + 1;
+        int score = evaluator.evaluate(game);
+        game.unmakeMove();
+        return score;
+    }
+
+    // Weights only need realistic magnitudes; nothing here depends on their values
+    private static NnueNetwork randomNetwork() {
+        Random random = new Random(17);
+        short[] featureWeights = new short[NnueNetwork.FEATURES * HIDDEN];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(129) - 64);
+        }
+        short[] outputWeights = new short[2 * HIDDEN];
+        for (int i = 0; i < outputWeights.length; i++) {
+            outputWeights[i] = (short) (random.nextInt(257) - 128);
+        }
+        return new NnueNetwork(HIDDEN, featureWeights, new short[HIDDEN], outputWeights, 0);
+    }
+}
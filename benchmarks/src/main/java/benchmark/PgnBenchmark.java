@@ -0,0 +1,120 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+import chess.pgn.PgnWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PGN games per second: reading with SAN resolved against legal moves,
+ * writing, and reading a file on one thread against all of them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PgnBenchmark {
+
+    private static final int GAMES = 1000;
+
+    private List<PgnGame> games;
+    private String text;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        games = randomGames();
+        StringWriter out = new StringWriter();
+        write(out);
+        text = out.toString();
+        file = Files.createTempFile("games", ".pgn");
+        try (Writer fileOut = Files.newBufferedWriter(file)) {
+            write(fileOut);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int read() throws IOException {
+        PgnReader reader = new PgnReader(new StringReader(text));
+        int plies = 0;
+        for (PgnGame game; (game = reader.next()) != null; ) {
+            plies += game.moves().length;
+        }
+        return plies;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int write() throws IOException {
+        StringWriter out = new StringWriter(text.length());
+        write(out);
+        return out.getBuffer().length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long readFile() throws IOException {
+        return PgnReader.readFile(file, 1, game -> {}).games();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long readFileParallel() throws IOException {
+        return PgnReader.readFile(file, Runtime.getRuntime().availableProcessors(), game -> {}).games();
+    }
+
+    private void write(Writer out) throws IOException {
+        PgnWriter writer = new PgnWriter(out);
+        for (PgnGame game : games) {
+            writer.write(game);
+        }
+        writer.flush();
+    }
+
+    // Random legal games of up to 160 plies, about the length of real ones
+    private static List<PgnGame> randomGames() {
+        Random random = new Random(23);
+        MoveList moves = new MoveList();
+        List<PgnGame> games = new ArrayList<>(GAMES);
+        for (int n = 0; n < GAMES; n++) {
+            ChessGame game = new ChessGame();
+            int[] played = new int[40 + random.nextInt(120)];
+            int plies = 0;
+            while (plies < played.length && game.generateLegalMoves(moves) > 0) {
+                played[plies] = moves.get(random.nextInt(moves.size()));
+                game.makeMoveUnchecked(played[plies++]);
+            }
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "Benchmark");
+            tags.put("Round", Integer.toString(n + 1));
+            tags.put("White", "Random");
+            tags.put("Black", "Random");
+            games.add(new PgnGame(tags, Arrays.copyOf(played, plies), "*"));
+        }
+        return games;
+    }
+}
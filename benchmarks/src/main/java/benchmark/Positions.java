@@ -0,0 +1,63 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+/**
+ * Fixed positions shared by the benchmarks.
+ */
+final class Positions {
+
+    private Positions() {}
+
+    static ChessGame start() {
+        return new ChessGame();
+    }
+
+    /**
+     * An open Italian game after 1.e4 e5 2.Nf3 Nc6 3.Bc4 Bc5 4.c3 Nf6 5.d4 exd4 6.cxd4 Bb4+,
+     * with white to answer a check: sliders, pins and captures all in play.
+     */
+    static ChessGame middlegame() {
+        return play("e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6",
+                "d2d4", "e5d4", "c3d4", "c5b4");
+    }
+
+    /**
+     * Fool's mate: white is checkmated.
+     */
+    static ChessGame checkmate() {
+        return play("f2f3", "e7e5", "g2g4", "d8h4");
+    }
+
+    static ChessGame play(String... moves) {
+        ChessGame game = new ChessGame();
+        try {
+            for (String move : moves) {
+                game.makeMove(move(move));
+            }
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException("Benchmark position has an illegal move", e);
+        }
+        return game;
+    }
+
+    static ChessMove move(String coordinates) {
+        ChessPiece.PieceType promotion = coordinates.length() > 4
+                ? switch (coordinates.charAt(4)) {
+                    case 'q' -> ChessPiece.PieceType.QUEEN;
+                    case 'r' -> ChessPiece.PieceType.ROOK;
+                    case 'b' -> ChessPiece.PieceType.BISHOP;
+                    default -> ChessPiece.PieceType.KNIGHT;
+                }
+                : null;
+        return new ChessMove(position(coordinates, 0), position(coordinates, 2), promotion);
+    }
+
+    private static ChessPosition position(String coordinates, int offset) {
+        return new ChessPosition(coordinates.charAt(offset + 1) - '0', coordinates.charAt(offset) - 'a' + 1);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of a game through Gson JSON, as the websocket handler once did on
+ * every move, and through the binary {@link GameCodec} it stores now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        game = Positions.middlegame();
+        json = gson.toJson(game);
+        encoded = GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public String gsonToJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame gsonFromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame gsonRoundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame codecDecode() {
+        return GameCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public ChessGame codecRoundTrip() {
+        return GameCodec.decode(GameCodec.encode(game));
+    }
+}
@@ -43,10 +43,40 @@ public class DatabaseManager {
                     whiteUsername VARCHAR(255),
                     blackUsername VARCHAR(255),
                     gameName VARCHAR(255),
-                    gameData TEXT
+                    gameData TEXT,
+                    gameState VARBINARY(64),
+                    snapshotPly INT NOT NULL DEFAULT 0,
+                    startFen VARCHAR(100)
+                );
+            """);
+
+                // Create Moves table: every move of every game, appended one row per move
+                stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS moves (
+                    gameID INT NOT NULL,
+                    ply INT NOT NULL,
+                    move INT NOT NULL,
+                    playedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+                    PRIMARY KEY (gameID, ply),
+                    FOREIGN KEY (gameID) REFERENCES games(gameID) ON DELETE CASCADE
                 );
             """);
             }
+            // Games tables from before positions were stored with GameCodec, then before the move log
+            addColumn(conn, "games", "gameState", "VARBINARY(64)");
+            addColumn(conn, "games", "snapshotPly", "INT NOT NULL DEFAULT 0");
+            addColumn(conn, "games", "startFen", "VARCHAR(100)");
+        }
+    }
+
+    private static void addColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        try (ResultSet columns = conn.getMetaData().getColumns(databaseName, null, table, column)) {
+            if (columns.next()) {
+                return;
+            }
+        }
+        try (var stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
         }
     }
 
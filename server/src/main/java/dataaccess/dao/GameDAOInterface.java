@@ -1,5 +1,6 @@
 package dataaccess.dao;
 
+import chess.ChessGame;
 import dataaccess.DataAccessException;
 import model.GameData;
 
@@ -15,5 +16,30 @@ public interface GameDAOInterface {
     GameData getGame(int gameId) throws DataAccessException;
     void updateGame(GameData updatedGame) throws DataAccessException;
 
+    /**
+     * @return the game's current position, the starting position if nobody has moved yet,
+     * or null if there is no such game
+     */
+    ChessGame getGameState(int gameId) throws DataAccessException;
+
+    /**
+     * Logs the move played at {@code ply} (1 for the first move of the game).
+     *
+     * @param snapshot the position after the move, to store as the new snapshot, or null to log the move alone
+     * @throws DataAccessException 409 if a move at {@code ply} is already logged, or 400 if the DAO keeps moves
+     * in a list and {@code ply} skips past the next one
+     */
+    void appendMove(int gameId, int ply, int move, ChessGame snapshot) throws DataAccessException;
+
+    /**
+     * @return every move of the game in order, as packed {@link chess.Move}s
+     */
+    int[] getMoves(int gameId) throws DataAccessException;
+
+    /**
+     * @return the position the logged moves start from, in FEN, or null if they start from the initial position
+     */
+    String getStartFen(int gameId) throws DataAccessException;
+
     void updateGamePlayer(int gameID, String color, String username);
 }
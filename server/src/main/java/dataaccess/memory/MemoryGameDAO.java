@@ -4,13 +4,14 @@ import dataaccess.DataAccessException;
 import dataaccess.dao.GameDAOInterface;
 import model.GameData;
 import chess.ChessGame;
-import com.google.gson.Gson;
+import chess.GameCodec;
 
 import java.util.*;
 
 public class MemoryGameDAO implements GameDAOInterface {
     private final Map<Integer, GameData> games = new HashMap<>();
-    private final Gson gson = new Gson();
+    // Absent until the first move
+    private final Map<Integer, MoveLog> logs = new HashMap<>();
     private int nextGameId = 1;
 
     @Override
@@ -21,15 +22,14 @@ public class MemoryGameDAO implements GameDAOInterface {
     @Override
     public void clear() {
         games.clear();
+        logs.clear();
         nextGameId = 1;
     }
 
     @Override
     public GameData createGame(String gameName) {
         int id = nextGameId++;
-        ChessGame gameObj = new ChessGame();
-        String gameJson = gson.toJson(gameObj); // serialize
-        GameData game = new GameData(id, null, null, gameName, gameJson);
+        GameData game = new GameData(id, null, null, gameName, null);
         games.put(id, game);
         return game;
     }
@@ -49,8 +49,67 @@ public class MemoryGameDAO implements GameDAOInterface {
         games.put(updatedGame.gameID(), updatedGame);
     }
 
+    @Override
+    public synchronized ChessGame getGameState(int gameId) {
+        if (!games.containsKey(gameId)) {
+            return null;
+        }
+        MoveLog log = logs.get(gameId);
+        if (log == null) {
+            return new ChessGame();
+        }
+        ChessGame game = log.snapshot != null ? GameCodec.decode(log.snapshot) : new ChessGame();
+        for (int ply = log.snapshotPly; ply < log.count; ply++) {
+            game.makeMoveUnchecked(log.moves[ply]);
+        }
+        return game;
+    }
+
+    @Override
+    public synchronized void appendMove(int gameId, int ply, int move, ChessGame snapshot) throws DataAccessException {
+        if (!games.containsKey(gameId)) {
+            throw new DataAccessException("Error: game not found", 404);
+        }
+        MoveLog log = logs.computeIfAbsent(gameId, id -> new MoveLog());
+        if (ply <= log.count) {
+            throw new DataAccessException("Error: move " + ply + " has already been played", 409);
+        }
+        // Moves are kept by position in the list, so one cannot be logged before the moves ahead of it
+        if (ply > log.count + 1) {
+            throw new DataAccessException("Error: move " + ply + " skips move " + (log.count + 1), 400);
+        }
+        if (log.count == log.moves.length) {
+            log.moves = Arrays.copyOf(log.moves, log.count * 2);
+        }
+        log.moves[log.count++] = move;
+        if (snapshot != null) {
+            log.snapshot = GameCodec.encode(snapshot);
+            log.snapshotPly = ply;
+        }
+    }
+
+    @Override
+    public synchronized int[] getMoves(int gameId) {
+        MoveLog log = logs.get(gameId);
+        return log == null ? new int[0] : Arrays.copyOf(log.moves, log.count);
+    }
+
+    // Games here are never loaded from a saved position
+    @Override
+    public String getStartFen(int gameId) {
+        return null;
+    }
+
     @Override
     public void updateGamePlayer(int gameID, String color, String username) {
 
     }
+
+    // Moves in ply order, plus the latest snapshot (GameCodec) and the ply it was taken after
+    private static final class MoveLog {
+        int[] moves = new int[64];
+        int count;
+        byte[] snapshot;
+        int snapshotPly;
+    }
 }
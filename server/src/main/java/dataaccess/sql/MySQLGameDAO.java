@@ -1,5 +1,13 @@
 package dataaccess.sql;
 
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.GameCodec;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import dataaccess.DataAccessException;
 import dataaccess.DatabaseManager;
 import dataaccess.dao.GameDAOInterface;
@@ -7,10 +15,20 @@ import model.GameData;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 public class MySQLGameDAO implements GameDAOInterface {
 
+    // Only for games last saved as JSON, before the gameState column
+    private static final Gson gson = new Gson();
+    // FEN letters by PieceType ordinal
+    private static final String PIECE_LETTERS = "kqrbnp";
+    private static final String INITIAL_FEN = new ChessGame().toFen();
+
+    // MySQL's ER_DUP_ENTRY
+    private static final int DUPLICATE_KEY = 1062;
+
     @Override
     public int createGame(GameData game) throws DataAccessException {
         try (Connection conn = DatabaseManager.getConnection()) {
@@ -101,6 +119,130 @@ public class MySQLGameDAO implements GameDAOInterface {
         }
     }
 
+    /**
+     * Rebuilds the position from the latest snapshot, replaying the moves logged after it.
+     */
+    @Override
+    public ChessGame getGameState(int gameID) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            ChessGame game;
+            int snapshotPly;
+            String sql = "SELECT gameState, gameData, snapshotPly FROM games WHERE gameID = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, gameID);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    byte[] state = rs.getBytes("gameState");
+                    String json = rs.getString("gameData");
+                    game = state != null ? GameCodec.decode(state) : legacyGame(json);
+                    snapshotPly = rs.getInt("snapshotPly");
+                }
+            }
+
+            sql = "SELECT move FROM moves WHERE gameID = ? AND ply > ? ORDER BY ply";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, gameID);
+                stmt.setInt(2, snapshotPly);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        game.makeMoveUnchecked(rs.getInt("move"));
+                    }
+                }
+            }
+            return game;
+        } catch (Exception e) {
+            throw new DataAccessException("Unable to get game state", e, 500);
+        }
+    }
+
+    @Override
+    public void appendMove(int gameID, int ply, int move, ChessGame snapshot) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            if (snapshot == null) {
+                insertMove(conn, gameID, ply, move);
+                return;
+            }
+            conn.setAutoCommit(false);
+            try {
+                insertMove(conn, gameID, ply, move);
+                // Drops any JSON copy so the row holds one current state, keeping where a legacy game's moves start
+                String sql = "UPDATE games SET gameState = ?, snapshotPly = ?, startFen = COALESCE(startFen, ?), "
+                        + "gameData = NULL WHERE gameID = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBytes(1, GameCodec.encode(snapshot));
+                    stmt.setInt(2, ply);
+                    stmt.setString(3, legacyStartFen(conn, gameID));
+                    stmt.setInt(4, gameID);
+                    if (stmt.executeUpdate() == 0) {
+                        throw new DataAccessException("Error: game not found", 404);
+                    }
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (DataAccessException e) {
+            throw e;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // A duplicate key is a move someone else made first; anything else is the foreign key
+            if (e.getErrorCode() == DUPLICATE_KEY) {
+                throw new DataAccessException("Error: move " + ply + " has already been played", e, 409);
+            }
+            throw new DataAccessException("Error: game not found", e, 404);
+        } catch (Exception e) {
+            throw new DataAccessException("Unable to record move", e, 500);
+        }
+    }
+
+    @Override
+    public int[] getMoves(int gameID) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            String sql = "SELECT move FROM moves WHERE gameID = ? ORDER BY ply";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, gameID);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    int[] moves = new int[64];
+                    int count = 0;
+                    while (rs.next()) {
+                        if (count == moves.length) {
+                            moves = Arrays.copyOf(moves, count * 2);
+                        }
+                        moves[count++] = rs.getInt("move");
+                    }
+                    return Arrays.copyOf(moves, count);
+                }
+            }
+        } catch (Exception e) {
+            throw new DataAccessException("Unable to get moves", e, 500);
+        }
+    }
+
+    /**
+     * A game loaded from a legacy row logs its moves from the position in that
+     * row. The position is kept in startFen once a snapshot replaces the row's
+     * JSON; until then it is read from the JSON.
+     */
+    @Override
+    public String getStartFen(int gameID) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            String sql = "SELECT startFen FROM games WHERE gameID = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, gameID);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getString("startFen") != null) {
+                        return rs.getString("startFen");
+                    }
+                }
+            }
+            return legacyStartFen(conn, gameID);
+        } catch (Exception e) {
+            throw new DataAccessException("Unable to get start position", e, 500);
+        }
+    }
+
     @Override
     public void updateGamePlayer(int gameID, String color, String username) {
 
@@ -109,6 +251,9 @@ public class MySQLGameDAO implements GameDAOInterface {
     @Override
     public void clear() throws DataAccessException {
         try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM moves")) {
+                stmt.executeUpdate();
+            }
             try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM games")) {
                 stmt.executeUpdate();
             }
@@ -146,4 +291,118 @@ public class MySQLGameDAO implements GameDAOInterface {
         }
     }
 
+    // The primary key turns a second move at the same ply, from a concurrent writer, into an error
+    private static void insertMove(Connection conn, int gameID, int ply, int move) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO moves (gameID, ply, move) VALUES (?, ?, ?)")) {
+            stmt.setInt(1, gameID);
+            stmt.setInt(2, ply);
+            stmt.setInt(3, move);
+            stmt.executeUpdate();
+        }
+    }
+
+    // The position a game still held as legacy JSON started its move log from, or null for the initial position
+    private static String legacyStartFen(Connection conn, int gameID) throws SQLException {
+        String sql = "SELECT gameData FROM games WHERE gameID = ? AND gameState IS NULL";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, gameID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String fen = legacyGame(rs.getString("gameData")).toFen();
+                return fen.equals(INITIAL_FEN) ? null : fen;
+            }
+        }
+    }
+
+    /**
+     * Reads the gameData column of a game saved before the gameState column.
+     * It may hold JSON of a ChessGame, in the current shape or the older one
+     * whose board was a ChessPiece[8][8], or (from before GameData.gameData()
+     * was fixed) the game's name. Anything that is not a valid position counts
+     * as a game nobody has moved in yet, so it can be played from its logged
+     * moves rather than failing to load.
+     */
+    static ChessGame legacyGame(String gameData) {
+        if (gameData == null) {
+            return new ChessGame();
+        }
+        try {
+            JsonObject root = JsonParser.parseString(gameData).getAsJsonObject();
+            JsonObject board = root.getAsJsonObject("board");
+            if (board != null && board.get("board") instanceof JsonArray squares) {
+                return ChessGame.fromFen(legacyFen(root, squares));
+            }
+            if (board != null && board.has("pieces")) {
+                // Through FEN so a board without both kings is rejected like any other bad position
+                return ChessGame.fromFen(gson.fromJson(root, ChessGame.class).toFen());
+            }
+        } catch (RuntimeException e) {
+            // Not a position; fall through
+        }
+        return new ChessGame();
+    }
+
+    // The old ChessGame kept moved flags for castling and the square a pawn skipped for en passant
+    private static String legacyFen(JsonObject game, JsonArray squares) {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            JsonArray rank = squares.get(row - 1).getAsJsonArray();
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                JsonElement square = rank.get(col - 1);
+                if (square.isJsonNull()) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                JsonObject piece = square.getAsJsonObject();
+                char letter = PIECE_LETTERS.charAt(ChessPiece.PieceType.valueOf(piece.get("type").getAsString()).ordinal());
+                fen.append("WHITE".equals(piece.get("pieceColor").getAsString()) ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+
+        JsonElement turn = game.get("teamTurn");
+        fen.append(turn != null && "BLACK".equals(turn.getAsString()) ? " b " : " w ");
+        int length = fen.length();
+        if (!moved(game, "whiteKingMoved") && !moved(game, "whiteKingsideRookMoved")) {
+            fen.append('K');
+        }
+        if (!moved(game, "whiteKingMoved") && !moved(game, "whiteQueensideRookMoved")) {
+            fen.append('Q');
+        }
+        if (!moved(game, "blackKingMoved") && !moved(game, "blackKingsideRookMoved")) {
+            fen.append('k');
+        }
+        if (!moved(game, "blackKingMoved") && !moved(game, "blackQueensideRookMoved")) {
+            fen.append('q');
+        }
+        if (fen.length() == length) {
+            fen.append('-');
+        }
+
+        JsonElement target = game.get("enPassantTarget");
+        if (target != null && target.isJsonObject()) {
+            JsonObject square = target.getAsJsonObject();
+            fen.append(' ').append((char) ('a' + square.get("column").getAsInt() - 1)).append(square.get("row").getAsInt());
+        } else {
+            fen.append(" -");
+        }
+        return fen.toString();
+    }
+
+    private static boolean moved(JsonObject game, String flag) {
+        JsonElement value = game.get(flag);
+        return value != null && value.getAsBoolean();
+    }
 }
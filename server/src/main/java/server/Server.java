@@ -6,6 +6,7 @@ import dataaccess.dao.DAOFactory;
 import dataaccess.dao.GameDAOInterface;
 import dataaccess.dao.UserDAOInterface;
 import server.handler.*;
+import service.AnalysisService;
 import service.ClearService;
 import service.GameService;
 import service.UserService;
@@ -31,6 +32,7 @@ public class Server {
             UserService userService = new UserService(userDAO, authDAO);
             GameService gameService = new GameService(gameDAO, authDAO);     // ✅ use GameDAOInterface
             ClearService clearService = new ClearService(userDAO, gameDAO, authDAO); // ✅ use GameDAOInterface
+            AnalysisService analysisService = new AnalysisService(gameDAO, authDAO);
 
             // Route registration
             Spark.post("/user", new RegisterHandler(userService, authDAO));
@@ -39,6 +41,8 @@ public class Server {
             Spark.post("/game", new CreateGameHandler(gameService, authDAO));
             Spark.put("/game", new JoinGameHandler(gameService, authDAO));
             Spark.get("/game", new ListGamesHandler(gameService, authDAO));
+            Spark.get("/game/analysis", new AnalysisHandler(analysisService));
+            Spark.get("/game/pgn", new GamePgnHandler(gameService));
             Spark.delete("/db", new ClearHandler(clearService));
 
             Spark.init();
@@ -0,0 +1,50 @@
+package server.handler;
+
+import com.google.gson.Gson;
+import dataaccess.DataAccessException;
+import model.AnalysisResponse;
+import model.ErrorResponse;
+import service.AnalysisService;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+/**
+ * GET /game/analysis?gameID=1[&lines=3][&millis=1000]
+ */
+public class AnalysisHandler implements Route {
+    private static final int DEFAULT_LINES = 3;
+    private static final long DEFAULT_MILLIS = 1_000;
+
+    private final AnalysisService analysisService;
+    private final Gson gson = new Gson();
+
+    public AnalysisHandler(AnalysisService analysisService) {
+        this.analysisService = analysisService;
+    }
+
+    @Override
+    public Object handle(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            int gameID = Integer.parseInt(req.queryParams("gameID"));
+            int lines = req.queryParams("lines") != null ? Integer.parseInt(req.queryParams("lines")) : DEFAULT_LINES;
+            long millis = req.queryParams("millis") != null ? Long.parseLong(req.queryParams("millis")) : DEFAULT_MILLIS;
+
+            AnalysisResponse analysis = analysisService.analyze(authToken, gameID, lines, millis);
+
+            res.status(200);
+            return gson.toJson(analysis);
+
+        } catch (NumberFormatException e) {
+            res.status(400);
+            return gson.toJson(new ErrorResponse("Error: bad request"));
+        } catch (DataAccessException e) {
+            res.status(e.statusCode());
+            return gson.toJson(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            res.status(500);
+            return gson.toJson(new ErrorResponse("Error: unexpected server error"));
+        }
+    }
+}
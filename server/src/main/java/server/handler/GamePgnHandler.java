@@ -0,0 +1,45 @@
+package server.handler;
+
+import com.google.gson.Gson;
+import dataaccess.DataAccessException;
+import model.ErrorResponse;
+import service.GameService;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+/**
+ * GET /game/pgn?gameID=1
+ */
+public class GamePgnHandler implements Route {
+    private final GameService gameService;
+    private final Gson gson = new Gson();
+
+    public GamePgnHandler(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Override
+    public Object handle(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            int gameID = Integer.parseInt(req.queryParams("gameID"));
+
+            String pgn = gameService.exportPgn(authToken, gameID);
+
+            res.status(200);
+            res.type("application/x-chess-pgn");
+            return pgn;
+
+        } catch (NumberFormatException e) {
+            res.status(400);
+            return gson.toJson(new ErrorResponse("Error: bad request"));
+        } catch (DataAccessException e) {
+            res.status(e.statusCode());
+            return gson.toJson(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            res.status(500);
+            return gson.toJson(new ErrorResponse("Error: unexpected server error"));
+        }
+    }
+}
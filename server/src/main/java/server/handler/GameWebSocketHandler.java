@@ -4,13 +4,20 @@ import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPosition;
 import chess.InvalidMoveException;
+import chess.Move;
+import chess.engine.GameClock;
+import chess.engine.SearchResult;
+import chess.eval.Evaluator;
+import chess.eval.PieceSquareEvaluator;
 import com.google.gson.Gson;
 import dataaccess.dao.AuthDAO;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.*;
+import service.ComputerOpponentService;
 import service.GameService;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -18,6 +25,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class GameWebSocketHandler {
 
     private static final Gson gson = new Gson();
+    // Not attached to any board, so it scans each position and is safe to share between sessions
+    private static final Evaluator evaluator = new PieceSquareEvaluator();
 
     // Maps sessions to usernames
     private final Map<Session, String> sessionUserMap = new ConcurrentHashMap<>();
@@ -27,10 +36,16 @@ public class GameWebSocketHandler {
 
     private final AuthDAO authDAO;
     private final GameService gameService;
+    private final ComputerOpponentService computers;
 
     public GameWebSocketHandler(AuthDAO authDAO, GameService gameService) {
+        this(authDAO, gameService, new ComputerOpponentService());
+    }
+
+    public GameWebSocketHandler(AuthDAO authDAO, GameService gameService, ComputerOpponentService computers) {
         this.authDAO = authDAO;
         this.gameService = gameService;
+        this.computers = computers;
     }
 
     private ChessPosition parseChessPosition(String pos) {
@@ -48,7 +63,7 @@ public class GameWebSocketHandler {
             throw new IllegalArgumentException("Invalid position range: " + pos);
         }
 
-        return new ChessPosition(row, column);
+        return ChessPosition.of(row, column);
     }
 
     @OnWebSocketConnect
@@ -92,6 +107,10 @@ public class GameWebSocketHandler {
                 int resignGameId = ((Double) msg.get("gameId")).intValue();
                 handleResign(session, resignGameId, username);
             }
+            case "playComputer" -> {
+                int computerGameId = ((Double) msg.get("gameId")).intValue();
+                handlePlayComputer(session, computerGameId, msg, username);
+            }
             default -> {
                 session.getRemote().sendString(gson.toJson(Map.of(
                         "type", "error",
@@ -120,6 +139,7 @@ public class GameWebSocketHandler {
                 "resignedBy", username
         );
 
+        computers.end(gameId);
         for (Session s : gameSessions.getOrDefault(gameId, ConcurrentHashMap.newKeySet())) {
             try {
                 s.getRemote().sendString(gson.toJson(resignMsg));
@@ -129,6 +149,40 @@ public class GameWebSocketHandler {
         // Optional: update game state in DB
     }
 
+    /**
+     * Seats a computer in the player's game, on the other side. Optional fields:
+     * "ponder" (default true), "clockMillis" (the computer's clock, default five
+     * minutes) and "incrementMillis" (default none).
+     */
+    private void handlePlayComputer(Session session, int gameId, Map<?, ?> msg, String username) throws Exception {
+        GameData gameData = gameService.getGameById(gameId);
+        ChessGame.TeamColor computerColor;
+        if (username.equals(gameData.whiteUsername())) {
+            computerColor = ChessGame.TeamColor.BLACK;
+        } else if (username.equals(gameData.blackUsername())) {
+            computerColor = ChessGame.TeamColor.WHITE;
+        } else {
+            session.getRemote().sendString(gson.toJson(Map.of("type", "error", "message", "Must be a player to play the computer")));
+            return;
+        }
+
+        boolean ponder = !Boolean.FALSE.equals(msg.get("ponder"));
+        long clockMillis = msg.get("clockMillis") instanceof Double d ? d.longValue() : 300_000;
+        long incrementMillis = msg.get("incrementMillis") instanceof Double d ? d.longValue() : 0;
+        computers.start(gameId, computerColor, GameClock.fischer(clockMillis, incrementMillis), ponder);
+
+        session.getRemote().sendString(gson.toJson(Map.of(
+                "type", "computerJoined",
+                "gameId", gameId,
+                "color", computerColor.toString(),
+                "ponder", ponder
+        )));
+
+        // The computer may have the first move
+        ChessGame game = gameService.getGameState(gameId);
+        computers.reply(gameId, game, result -> applyComputerMove(gameId, game, result));
+    }
+
     private void handleMove(Session session, int gameId, Map<?, ?> moveMap, String username) {
         try {
             GameData gameData = gameService.getGameById(gameId);
@@ -137,7 +191,11 @@ public class GameWebSocketHandler {
                 return;
             }
 
-            ChessGame game = gson.fromJson(gameData.gameData(), ChessGame.class);
+            ChessGame game = gameService.getGameState(gameId);
+            if (isOver(gameStatus(game))) {
+                session.getRemote().sendString(gson.toJson(Map.of("type", "error", "message", "Game is over")));
+                return;
+            }
 
             String fromStr = (String) moveMap.get("from");
             String toStr = (String) moveMap.get("to");
@@ -149,6 +207,10 @@ public class GameWebSocketHandler {
 
             ChessGame.TeamColor playerColor = username.equals(gameData.whiteUsername()) ?
                     ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            if (computers.isComputerGame(gameId) && game.getTeamTurn() != playerColor) {
+                session.getRemote().sendString(gson.toJson(Map.of("type", "error", "message", "Not your turn")));
+                return;
+            }
 
             var from = parseChessPosition(fromStr);
             var to = parseChessPosition(toStr);
@@ -161,22 +223,15 @@ public class GameWebSocketHandler {
                 return;
             }
 
-            String updatedGameJson = gson.toJson(game);
-            gameService.updateGame(gameId, updatedGameJson);
-
-            var updateMsg = Map.of(
-                    "type", "moveMade",
-                    "gameId", gameId,
-                    "move", Map.of("from", from.toString(), "to", to.toString()),
-                    "board", game.getBoard().toString()
-            );
-
-            for (Session s : gameSessions.getOrDefault(gameId, ConcurrentHashMap.newKeySet())) {
-                try {
-                    s.getRemote().sendString(gson.toJson(updateMsg));
-                } catch (Exception ignored) {}
+            gameService.recordMove(gameId, game, Move.fromChessMove(move));
+            if (broadcastMove(gameId, game, move, false)) {
+                computers.end(gameId);
+                return;
             }
 
+            // Validation is done; the computer thinks on its own thread
+            computers.reply(gameId, game, result -> applyComputerMove(gameId, game, result));
+
         } catch (Exception e) {
             try {
                 session.getRemote().sendString(gson.toJson(Map.of("type", "error", "message", e.getMessage())));
@@ -184,6 +239,65 @@ public class GameWebSocketHandler {
         }
     }
 
+    // Runs on a computer thread once the computer has chosen its move
+    private void applyComputerMove(int gameId, ChessGame game, SearchResult result) {
+        ChessMove move = result.bestChessMove();
+        try {
+            game.makeMove(move);
+            gameService.recordMove(gameId, game, result.bestMove());
+        } catch (Exception e) {
+            computers.end(gameId);
+            return;
+        }
+        if (broadcastMove(gameId, game, move, true)) {
+            computers.end(gameId);
+        }
+    }
+
+    // Returns whether the move ended the game
+    private boolean broadcastMove(int gameId, ChessGame game, ChessMove move, boolean byComputer) {
+        String status = gameStatus(game);
+        Map<String, Object> updateMsg = new LinkedHashMap<>();
+        updateMsg.put("type", "moveMade");
+        updateMsg.put("gameId", gameId);
+        updateMsg.put("move", Map.of("from", move.getStartPosition().toString(), "to", move.getEndPosition().toString()));
+        updateMsg.put("fen", game.toFen());
+        updateMsg.put("status", status);
+        updateMsg.put("evaluation", evaluator.whiteScore(game));
+        updateMsg.put("computer", byComputer);
+
+        for (Session s : gameSessions.getOrDefault(gameId, ConcurrentHashMap.newKeySet())) {
+            try {
+                s.getRemote().sendString(gson.toJson(updateMsg));
+            } catch (Exception ignored) {}
+        }
+        return isOver(status);
+    }
+
+    // Status of the side to move, sent to everyone watching after each move
+    private String gameStatus(ChessGame game) {
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        if (game.isInCheck(toMove)) {
+            if (game.isInCheckmate(toMove)) {
+                return "checkmate";
+            }
+        } else if (game.isInStalemate(toMove)) {
+            return "stalemate";
+        }
+        // Draws are claimed for the players as soon as they are available
+        if (game.isThreefoldRepetition()) {
+            return "repetition";
+        }
+        if (game.isFiftyMoveRule()) {
+            return "fiftyMoveRule";
+        }
+        return game.isInCheck(toMove) ? "check" : "active";
+    }
+
+    private static boolean isOver(String status) {
+        return !status.equals("active") && !status.equals("check");
+    }
+
     private void joinGame(Session session, int gameId) throws Exception {
         gameSessions.putIfAbsent(gameId, ConcurrentHashMap.newKeySet());
         gameSessions.get(gameId).add(session);
@@ -194,7 +308,14 @@ public class GameWebSocketHandler {
             return;
         }
 
-        session.getRemote().sendString(gson.toJson(Map.of("type", "gameState", "game", game)));
+        // The stored game carries no board, so the position is sent as FEN
+        ChessGame position = gameService.getGameState(gameId);
+        session.getRemote().sendString(gson.toJson(Map.of(
+                "type", "gameState",
+                "game", game,
+                "fen", position.toFen(),
+                "status", gameStatus(position)
+        )));
     }
 
     @OnWebSocketClose
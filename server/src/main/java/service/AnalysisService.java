@@ -0,0 +1,81 @@
+package service;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import dataaccess.DataAccessException;
+import dataaccess.dao.AuthDAO;
+import dataaccess.dao.GameDAOInterface;
+import model.AnalysisLine;
+import model.AnalysisResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Top-N move analysis of a stored game's current position.
+ * <p>
+ * Analyses share one transposition table, so positions looked at before come
+ * back faster, and at most one runs per processor at a time; a request that
+ * finds them all busy is turned away rather than queued.
+ */
+public class AnalysisService {
+
+    public static final int MAX_LINES = 10;
+    public static final long MAX_MILLIS = 10_000;
+
+    private static final int TABLE_MB = 64;
+
+    private final GameDAOInterface gameDAO;
+    private final AuthDAO authDAO;
+    private final TranspositionTable table = new TranspositionTable(TABLE_MB);
+    private final Semaphore running = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    public AnalysisService(GameDAOInterface gameDAO, AuthDAO authDAO) {
+        this.gameDAO = gameDAO;
+        this.authDAO = authDAO;
+    }
+
+    /**
+     * Searches the position for {@code millis} and returns the {@code lines} best moves, best first.
+     */
+    public AnalysisResponse analyze(String authToken, int gameID, int lines, long millis) throws DataAccessException {
+        if (authToken == null || authDAO.getAuth(authToken) == null) {
+            throw new DataAccessException("Error: unauthorized", 401);
+        }
+        if (lines < 1 || lines > MAX_LINES || millis < 1 || millis > MAX_MILLIS) {
+            throw new DataAccessException("Error: bad request", 400);
+        }
+        ChessGame position = gameDAO.getGameState(gameID);
+        if (position == null) {
+            throw new DataAccessException("Error: game not found", 404);
+        }
+
+        if (!running.tryAcquire()) {
+            throw new DataAccessException("Error: analysis busy, try again", 503);
+        }
+        List<SearchResult> results;
+        try {
+            results = new Search(table).searchMultiPv(position, SearchLimits.millis(millis), lines);
+        } finally {
+            running.release();
+        }
+
+        List<AnalysisLine> analysis = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            List<String> pv = new ArrayList<>(result.pv().length);
+            for (int move : result.pv()) {
+                pv.add(Move.toString(move));
+            }
+            analysis.add(new AnalysisLine(Move.toString(result.bestMove()), result.score(),
+                    result.isMate() ? result.mateIn() : null, pv));
+        }
+        int depth = results.isEmpty() ? 0 : results.get(0).depth();
+        long nodes = results.isEmpty() ? 0 : results.get(results.size() - 1).nodes();
+        return new AnalysisResponse(gameID, depth, nodes, analysis);
+    }
+}
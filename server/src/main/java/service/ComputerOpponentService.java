@@ -0,0 +1,181 @@
+package service;
+
+import chess.ChessGame;
+import chess.engine.ComputerPlayer;
+import chess.engine.GameClock;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TimeManager;
+import chess.engine.TranspositionTable;
+import chess.eval.PieceSquareEvaluator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Computer opponents for games played over the websocket.
+ * <p>
+ * Searches never run on the threads that validate and apply human moves.
+ * Computer moves run on their own pool, queued if every thread is busy. Ponder
+ * searches run at low priority on a separate pool with no queue, so when all
+ * ponder threads are taken a game simply does not ponder. Each game also has
+ * a CPU quota for pondering: a single ponder may last no longer than the
+ * computer would think about its own move, and once a game has pondered for as
+ * long as its computer's starting clock it stops pondering altogether.
+ * <p>
+ * All games share one transposition table, so a game costs only its search
+ * buffers (around 150 KB) and many can be played at once on one JVM.
+ */
+public class ComputerOpponentService implements AutoCloseable {
+
+    // Shared by every game, so memory stays the same however many are played
+    private static final int TABLE_MB = 64;
+    private static final long MAX_PONDER_MILLIS = 10_000;
+
+    private final Map<Integer, ComputerGame> games = new ConcurrentHashMap<>();
+    private final TranspositionTable table = new TranspositionTable(TABLE_MB);
+    private final ExecutorService moveThreads;
+    private final ThreadPoolExecutor ponderThreads;
+
+    /**
+     * Half the processors for computer moves and half for pondering; on a
+     * single processor there is no pondering.
+     */
+    public ComputerOpponentService() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * @param ponderThreads 0 disables pondering
+     */
+    public ComputerOpponentService(int moveThreads, int ponderThreads) {
+        this.moveThreads = Executors.newFixedThreadPool(moveThreads, threads("computer-move", Thread.NORM_PRIORITY));
+        this.ponderThreads = new ThreadPoolExecutor(0, Math.max(1, ponderThreads), 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threads("computer-ponder", Thread.MIN_PRIORITY));
+        if (ponderThreads == 0) {
+            this.ponderThreads.shutdown();
+        }
+    }
+
+    /**
+     * Seats a computer in {@code gameId}, replacing any computer already there.
+     *
+     * @param clock the computer's own clock; it is charged for each move the computer makes
+     */
+    public void start(int gameId, ChessGame.TeamColor color, GameClock clock, boolean ponder) {
+        ComputerGame previous = games.put(gameId, new ComputerGame(gameId, color, clock, ponder));
+        if (previous != null) {
+            previous.player.stop();
+        }
+    }
+
+    public boolean isComputerGame(int gameId) {
+        return games.containsKey(gameId);
+    }
+
+    /**
+     * @return the color the computer plays in {@code gameId}, or null if it has no computer
+     */
+    public ChessGame.TeamColor computerColor(int gameId) {
+        ComputerGame computer = games.get(gameId);
+        return computer == null ? null : computer.color;
+    }
+
+    /**
+     * If it is the computer's turn in {@code game}, chooses its move on a
+     * computer thread and passes the result to {@code onMove} there; the
+     * caller applies it. Then starts pondering on the reply it expects.
+     * Returns at once; nothing happens if the game is over or not the
+     * computer's turn.
+     */
+    public void reply(int gameId, ChessGame game, Consumer<SearchResult> onMove) {
+        ComputerGame computer = games.get(gameId);
+        if (computer == null || game.getTeamTurn() != computer.color) {
+            return;
+        }
+        ChessGame position = new ChessGame(game);
+        moveThreads.execute(() -> computer.move(position, onMove));
+    }
+
+    /**
+     * Removes the computer from {@code gameId} and stops its search, thinking
+     * or pondering. Returns at once; a move found after this is never passed on.
+     */
+    public void end(int gameId) {
+        ComputerGame computer = games.remove(gameId);
+        if (computer != null) {
+            computer.player.stop();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int gameId : games.keySet()) {
+            end(gameId);
+        }
+        moveThreads.shutdownNow();
+        ponderThreads.shutdownNow();
+    }
+
+    private static ThreadFactory threads(String name, int priority) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+
+    private final class ComputerGame {
+        final int gameId;
+        final ChessGame.TeamColor color;
+        final ComputerPlayer player = new ComputerPlayer(table, new PieceSquareEvaluator(), TimeManager.DEFAULT);
+        final boolean ponder;
+        final long ponderBudgetNanos;
+        GameClock clock;
+
+        ComputerGame(int gameId, ChessGame.TeamColor color, GameClock clock, boolean ponder) {
+            this.gameId = gameId;
+            this.color = color;
+            this.clock = clock;
+            this.ponder = ponder;
+            this.ponderBudgetNanos = TimeUnit.MILLISECONDS.toNanos(clock.remainingMillis());
+        }
+
+        // Runs on a computer move thread; one at a time per game since moves alternate
+        synchronized void move(ChessGame position, Consumer<SearchResult> onMove) {
+            if (games.get(gameId) != this) {
+                return;
+            }
+            // Not the result's own time, which on a ponder hit includes the pondering
+            long start = System.nanoTime();
+            SearchResult result = player.think(position, clock);
+            clock = clock.afterMove(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            // The game may have been resigned or given to another computer while this one thought
+            if (result.bestChessMove() == null || games.get(gameId) != this) {
+                return;
+            }
+            onMove.accept(result);
+
+            if (ponder && player.ponderNanos() < ponderBudgetNanos) {
+                long quota = Math.min(MAX_PONDER_MILLIS, TimeManager.DEFAULT.allocate(clock).maxMillis());
+                position.makeMoveUnchecked(result.bestMove());
+                player.ponder(position, result, SearchLimits.millis(quota), ponderThreads);
+                // An end() that came while the ponder was starting could not stop it
+                if (games.get(gameId) != this) {
+                    player.stop();
+                }
+            }
+        }
+    }
+}
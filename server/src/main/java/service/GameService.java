@@ -1,5 +1,8 @@
 package service;
 
+import chess.ChessGame;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnWriter;
 import dataaccess.*;
 
 import dataaccess.dao.AuthDAO;
@@ -10,10 +13,16 @@ import model.CreateGameRequest;
 import model.JoinGameRequest;
 import model.CreateGameResponse;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 
 public class GameService {
+    public static final int SNAPSHOT_INTERVAL = 32;
+
     private final GameDAOInterface gameDAO;
     private final AuthDAO authDAO;
 
@@ -98,13 +107,71 @@ public class GameService {
     }
 
 
-    public void updateGame(int gameId, String updatedGame) throws DataAccessException {
-        GameData oldGame = gameDAO.getGame(gameId);
-        if (oldGame == null) {
-            throw new DataAccessException("Game not found", 404);
+    /**
+     * Returns the game's current position, the starting position if nobody has moved yet.
+     */
+    public ChessGame getGameState(int gameId) throws DataAccessException {
+        ChessGame game = gameDAO.getGameState(gameId);
+        if (game == null) {
+            throw new DataAccessException("Error: game not found", 404);
         }
-        GameData updated = new GameData(gameId, oldGame.whiteUsername(), oldGame.blackUsername(), oldGame.gameName(), updatedGame);
-        gameDAO.updateGame(updated);
+        return game;
     }
 
+    /**
+     * Logs {@code move}, which has just been played in {@code game}. Once
+     * {@value #SNAPSHOT_INTERVAL} plies have been played since the game was
+     * loaded, the position after the next capture or pawn move is stored as a
+     * snapshot, so loading a game replays a bounded number of moves and still
+     * sees every position since the last irreversible move for repetitions.
+     *
+     * @param game the game as loaded by {@link #getGameState(int)}, with the move played
+     * @throws DataAccessException 409 if another move was logged at the same point first
+     */
+    public void recordMove(int gameId, ChessGame game, int move) throws DataAccessException {
+        // The move number gives the ply, so plies keep increasing from wherever the game's log starts
+        int ply = (game.getFullmoveNumber() - 1) * 2 + (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0);
+        boolean snapshot = game.getHalfmoveClock() == 0 && game.getHistoryLength() >= SNAPSHOT_INTERVAL;
+        gameDAO.appendMove(gameId, ply, move, snapshot ? game : null);
+    }
+
+    /**
+     * Writes the game's moves so far as PGN, from the move log. A game whose
+     * log starts from a saved position gets that position as its FEN tag.
+     */
+    public String exportPgn(String authToken, int gameId) throws DataAccessException {
+        if (authToken == null || authDAO.getAuth(authToken) == null) {
+            throw new DataAccessException("Error: unauthorized", 401);
+        }
+        GameData game = getGameById(gameId);
+        int[] moves = gameDAO.getMoves(gameId);
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", game.gameName() != null ? game.gameName() : "?");
+        tags.put("White", game.whiteUsername() != null ? game.whiteUsername() : "?");
+        tags.put("Black", game.blackUsername() != null ? game.blackUsername() : "?");
+        String startFen = gameDAO.getStartFen(gameId);
+        if (startFen != null) {
+            tags.put("SetUp", "1");
+            tags.put("FEN", startFen);
+        }
+        PgnGame pgn = new PgnGame(tags, moves, result(gameDAO.getGameState(gameId)));
+
+        StringWriter out = new StringWriter();
+        try {
+            new PgnWriter(out).write(pgn);
+        } catch (IOException e) {
+            throw new DataAccessException("Error: unable to write PGN", e, 500);
+        }
+        return out.toString();
+    }
+
+    // Games are only ever finished on the board here; resignations are not recorded
+    private static String result(ChessGame game) {
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        if (game.isInCheckmate(toMove)) {
+            return toMove == ChessGame.TeamColor.WHITE ? "0-1" : "1-0";
+        }
+        return game.isDraw() ? "1/2-1/2" : "*";
+    }
 }
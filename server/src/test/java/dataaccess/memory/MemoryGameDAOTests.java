@@ -0,0 +1,36 @@
+package dataaccess.memory;
+
+import chess.ChessGame;
+import chess.pgn.San;
+import dataaccess.DataAccessException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MemoryGameDAOTests {
+
+    @Test
+    @DisplayName("Duplicate And Skipped Moves Are Told Apart")
+    public void duplicateAndSkippedMoves() throws Exception {
+        MemoryGameDAO dao = new MemoryGameDAO();
+        int gameId = dao.createGame("Gaps").gameID();
+        ChessGame game = new ChessGame();
+        int e4 = San.parse(game, "e4");
+        dao.appendMove(gameId, 1, e4, null);
+        game.makeMoveUnchecked(e4);
+        int e5 = San.parse(game, "e5");
+
+        DataAccessException duplicate = Assertions.assertThrows(DataAccessException.class,
+                () -> dao.appendMove(gameId, 1, e5, null));
+        Assertions.assertEquals(409, duplicate.statusCode());
+
+        DataAccessException gap = Assertions.assertThrows(DataAccessException.class,
+                () -> dao.appendMove(gameId, 3, e5, null));
+        Assertions.assertEquals(400, gap.statusCode());
+
+        dao.appendMove(gameId, 2, e5, null);
+        game.makeMoveUnchecked(e5);
+        Assertions.assertArrayEquals(new int[]{e4, e5}, dao.getMoves(gameId));
+        Assertions.assertEquals(game.toFen(), dao.getGameState(gameId).toFen());
+    }
+}
@@ -0,0 +1,187 @@
+package dataaccess.sql;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.pgn.San;
+import dataaccess.DatabaseManager;
+import dataaccess.dao.AuthDAO;
+import model.AuthData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.GameService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MySQLGameDAOTests {
+
+    private static boolean databaseAvailable;
+
+    private final MySQLGameDAO dao = new MySQLGameDAO();
+    private final List<Integer> inserted = new ArrayList<>();
+
+    @BeforeAll
+    public static void connect() {
+        try {
+            DatabaseManager.createDatabase();
+            DatabaseManager.initializeDatabase();
+            databaseAvailable = true;
+        } catch (Exception | LinkageError e) {
+            // No db.properties or no server: only the tests that need no database run
+            databaseAvailable = false;
+        }
+    }
+
+    @AfterEach
+    public void deleteRows() throws Exception {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM games WHERE gameID = ?")) {
+            for (int gameID : inserted) {
+                stmt.setInt(1, gameID);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Legacy Game Data Holding The Game Name")
+    public void legacyName() {
+        Assertions.assertEquals(new ChessGame(), MySQLGameDAO.legacyGame("Friday game"));
+        Assertions.assertEquals(new ChessGame(), MySQLGameDAO.legacyGame("{\"not\": \"a game\"}"));
+        Assertions.assertEquals(new ChessGame(), MySQLGameDAO.legacyGame(null));
+    }
+
+    @Test
+    @DisplayName("Legacy Game Data In The Old Board Shape")
+    public void legacyOldShape() {
+        ChessGame game = afterE4();
+        Assertions.assertEquals(game.toFen(), MySQLGameDAO.legacyGame(oldShapeJson(game, true)).toFen());
+
+        // Moved flags take castling away
+        String noCastling = oldShapeJson(game, true).replace("\"whiteKingMoved\":false", "\"whiteKingMoved\":true");
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b kq e3 0 1",
+                MySQLGameDAO.legacyGame(noCastling).toFen());
+
+        // A board without kings is not a position to play on
+        Assertions.assertEquals(new ChessGame(), MySQLGameDAO.legacyGame(oldShapeJson(game, false)));
+    }
+
+    @Test
+    @DisplayName("Legacy Rows Load And Replay Logged Moves")
+    public void legacyRowsLoad() throws Exception {
+        Assumptions.assumeTrue(databaseAvailable, "MySQL is not available");
+
+        int named = insertLegacyRow("Friday game");
+        ChessGame start = new ChessGame();
+        Assertions.assertEquals(start, dao.getGameState(named));
+        int e4 = legalMove(start, "e4");
+        dao.appendMove(named, 1, e4, null);
+        start.makeMoveUnchecked(e4);
+        Assertions.assertEquals(start.toFen(), dao.getGameState(named).toFen());
+
+        ChessGame game = afterE4();
+        int oldShape = insertLegacyRow(oldShapeJson(game, true));
+        Assertions.assertEquals(game.toFen(), dao.getGameState(oldShape).toFen());
+        int e5 = legalMove(game, "e5");
+        dao.appendMove(oldShape, 2, e5, null);
+        game.makeMoveUnchecked(e5);
+        Assertions.assertEquals(game.toFen(), dao.getGameState(oldShape).toFen());
+    }
+
+    @Test
+    @DisplayName("Game Loaded From A Legacy Row Exports From Its Position")
+    public void legacyRowExports() throws Exception {
+        Assumptions.assumeTrue(databaseAvailable, "MySQL is not available");
+
+        AuthDAO authDAO = new AuthDAO();
+        authDAO.insertAuth(new AuthData("token", "alice"));
+        GameService service = new GameService(dao, authDAO);
+        ChessGame start = afterE4();
+        int gameID = insertLegacyRow(oldShapeJson(start, true));
+        Assertions.assertEquals(start.toFen(), dao.getStartFen(gameID));
+
+        ChessGame game = service.getGameState(gameID);
+        int e5 = legalMove(game, "e5");
+        game.makeMoveUnchecked(e5);
+        service.recordMove(gameID, game, e5);
+        // A snapshot drops the legacy JSON, and the start position with it unless it is kept
+        int nf3 = legalMove(game, "Nf3");
+        game.makeMoveUnchecked(nf3);
+        dao.appendMove(gameID, 3, nf3, game);
+        Assertions.assertEquals(start.toFen(), dao.getStartFen(gameID));
+
+        String pgn = service.exportPgn("token", gameID);
+        Assertions.assertTrue(pgn.contains("[SetUp \"1\"]\n[FEN \"" + start.toFen() + "\"]\n"), pgn);
+        Assertions.assertTrue(pgn.contains("1... e5 2. Nf3 *"), pgn);
+
+        // Games with no legacy position export from the initial one
+        int named = insertLegacyRow("Friday game");
+        Assertions.assertNull(dao.getStartFen(named));
+        Assertions.assertFalse(service.exportPgn("token", named).contains("[FEN "));
+    }
+
+    private int insertLegacyRow(String gameData) throws Exception {
+        String sql = "INSERT INTO games (gameName, gameData) VALUES (?, ?)";
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, "Legacy");
+            stmt.setString(2, gameData);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                inserted.add(keys.getInt(1));
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static ChessGame afterE4() {
+        ChessGame game = new ChessGame();
+        game.makeMoveUnchecked(legalMove(game, "e4"));
+        return game;
+    }
+
+    private static int legalMove(ChessGame game, String san) {
+        return San.parse(game, san);
+    }
+
+    // ChessGame JSON as Gson wrote it before boards were bitboards
+    private static String oldShapeJson(ChessGame game, boolean withKings) {
+        StringBuilder json = new StringBuilder("{\"board\":{\"board\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append(row > 1 ? ",[" : "[");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                if (col > 1) {
+                    json.append(',');
+                }
+                if (piece == null || (!withKings && piece.getPieceType() == ChessPiece.PieceType.KING)) {
+                    json.append("null");
+                } else {
+                    json.append("{\"pieceColor\":\"").append(piece.getTeamColor())
+                            .append("\",\"type\":\"").append(piece.getPieceType()).append("\"}");
+                }
+            }
+            json.append(']');
+        }
+        json.append("]},\"teamTurn\":\"").append(game.getTeamTurn()).append('"');
+        for (String flag : new String[]{"whiteKingMoved", "whiteKingsideRookMoved", "whiteQueensideRookMoved",
+                "blackKingMoved", "blackKingsideRookMoved", "blackQueensideRookMoved"}) {
+            json.append(",\"").append(flag).append("\":false");
+        }
+        json.append(",\"enPassantTarget\":{\"row\":3,\"column\":5}}");
+        return json.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package service;
+
+import chess.ChessGame;
+import chess.engine.GameClock;
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ComputerOpponentServiceTests {
+
+    // Long enough that the computer is still thinking when the game ends
+    private static final GameClock LONG_CLOCK = GameClock.suddenDeath(600_000);
+
+    @Test
+    @DisplayName("Resigning During A Computer Move")
+    public void resignDuringComputerMove() throws InterruptedException {
+        try (ComputerOpponentService computers = new ComputerOpponentService(1, 0)) {
+            computers.start(1, ChessGame.TeamColor.WHITE, LONG_CLOCK, false);
+            AtomicReference<SearchResult> played = new AtomicReference<>();
+            computers.reply(1, new ChessGame(), played::set);
+            Thread.sleep(300);
+
+            long start = System.nanoTime();
+            computers.end(1);
+            long endMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assertions.assertTrue(endMillis < 100, "end() waited " + endMillis + " ms for the search");
+
+            // Once the stopped search has returned, a new game on the same move thread can move
+            CountDownLatch next = new CountDownLatch(1);
+            computers.start(2, ChessGame.TeamColor.WHITE, GameClock.suddenDeath(1_000), false);
+            computers.reply(2, new ChessGame(), result -> next.countDown());
+            Assertions.assertTrue(next.await(10, TimeUnit.SECONDS));
+            Assertions.assertNull(played.get(), "Move played in a resigned game");
+        }
+    }
+
+    @Test
+    @DisplayName("Replaced Computer Does Not Move")
+    public void replacedComputerDoesNotMove() throws InterruptedException {
+        try (ComputerOpponentService computers = new ComputerOpponentService(2, 0)) {
+            computers.start(1, ChessGame.TeamColor.WHITE, LONG_CLOCK, false);
+            AtomicReference<SearchResult> played = new AtomicReference<>();
+            computers.reply(1, new ChessGame(), played::set);
+            Thread.sleep(300);
+
+            CountDownLatch replacement = new CountDownLatch(1);
+            computers.start(1, ChessGame.TeamColor.WHITE, GameClock.suddenDeath(1_000), false);
+            computers.reply(1, new ChessGame(), result -> replacement.countDown());
+            Assertions.assertTrue(replacement.await(10, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            Assertions.assertNull(played.get(), "Replaced computer still moved");
+        }
+    }
+}
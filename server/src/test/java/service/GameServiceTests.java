@@ -0,0 +1,50 @@
+package service;
+
+import chess.ChessGame;
+import chess.pgn.San;
+import dataaccess.dao.AuthDAO;
+import dataaccess.memory.MemoryGameDAO;
+import model.AuthData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameServiceTests {
+
+    @Test
+    @DisplayName("PGN Export Starts From The Logged Position")
+    public void exportFromStartPosition() throws Exception {
+        String startFen = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+        // Stands in for a game loaded from a legacy row, whose moves continue from a saved position
+        MemoryGameDAO gameDAO = new MemoryGameDAO() {
+            @Override
+            public String getStartFen(int gameId) {
+                return startFen;
+            }
+
+            @Override
+            public ChessGame getGameState(int gameId) {
+                ChessGame game = ChessGame.fromFen(startFen);
+                for (int move : getMoves(gameId)) {
+                    game.makeMoveUnchecked(move);
+                }
+                return game;
+            }
+        };
+        AuthDAO authDAO = new AuthDAO();
+        authDAO.insertAuth(new AuthData("token", "alice"));
+        GameService service = new GameService(gameDAO, authDAO);
+        int gameId = gameDAO.createGame("Legacy").gameID();
+
+        for (String san : new String[]{"O-O", "O-O-O"}) {
+            ChessGame game = service.getGameState(gameId);
+            int move = San.parse(game, san);
+            game.makeMoveUnchecked(move);
+            service.recordMove(gameId, game, move);
+        }
+
+        String pgn = service.exportPgn("token", gameId);
+        Assertions.assertTrue(pgn.contains("[SetUp \"1\"]\n[FEN \"" + startFen + "\"]\n"), pgn);
+        Assertions.assertTrue(pgn.contains("1. O-O O-O-O *"), pgn);
+    }
+}
@@ -0,0 +1,137 @@
+package chess;
+
+/**
+ * Static helpers for 64-bit board masks.
+ * <p>
+ * Squares are numbered 0..63 with bit 0 = row 1, column 1 (a1) and
+ * bit 63 = row 8, column 8 (h8), so square = (row - 1) * 8 + (column - 1).
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // [color ordinal][square] -> squares a pawn of that color on that square attacks
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    // [a][b] -> squares strictly between a and b when they share a rank, file or diagonal
+    private static final long[][] BETWEEN = new long[64][64];
+    // [a][b] -> the whole edge-to-edge line through a and b when aligned, otherwise 0
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int r = rowOf(sq), c = columnOf(sq);
+            for (int[] d : knightSteps) {
+                KNIGHT_ATTACKS[sq] |= maskOf(r + d[0], c + d[1]);
+            }
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr != 0 || dc != 0) {
+                        KING_ATTACKS[sq] |= maskOf(r + dr, c + dc);
+                    }
+                }
+            }
+            PAWN_ATTACKS[0][sq] = maskOf(r + 1, c - 1) | maskOf(r + 1, c + 1);
+            PAWN_ATTACKS[1][sq] = maskOf(r - 1, c - 1) | maskOf(r - 1, c + 1);
+        }
+
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+        for (int a = 0; a < 64; a++) {
+            for (int[] d : directions) {
+                long full = bit(a);
+                for (int r = rowOf(a) + d[0], c = columnOf(a) + d[1]; maskOf(r, c) != 0; r += d[0], c += d[1]) {
+                    full |= maskOf(r, c);
+                }
+                for (int r = rowOf(a) - d[0], c = columnOf(a) - d[1]; maskOf(r, c) != 0; r -= d[0], c -= d[1]) {
+                    full |= maskOf(r, c);
+                }
+                long between = 0L;
+                for (int r = rowOf(a) + d[0], c = columnOf(a) + d[1]; maskOf(r, c) != 0; r += d[0], c += d[1]) {
+                    int b = square(r, c);
+                    BETWEEN[a][b] = between;
+                    LINE[a][b] = full;
+                    between |= bit(b);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {}
+
+    public static int square(int row, int column) {
+        return (row - 1) * 8 + (column - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    public static int rowOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int columnOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.ofSquare(square);
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on {@code square} attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * @return the squares strictly between {@code a} and {@code b}, or 0 if they are not aligned
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through {@code a} and {@code b}, or 0 if not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return MagicBitboards.rookAttacks(square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return MagicBitboards.bishopAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return MagicBitboards.rookAttacks(square, occupied) | MagicBitboards.bishopAttacks(square, occupied);
+    }
+
+    private static long maskOf(int row, int column) {
+        if (row < 1 || row > 8 || column < 1 || column > 8) {
+            return 0L;
+        }
+        return bit(square(row, column));
+    }
+}
@@ -0,0 +1,25 @@
+package chess;
+
+/**
+ * Receives every change made to a {@link ChessBoard}, so derived state such
+ * as an evaluation can be updated piece by piece instead of rescanning the
+ * board. Moves made and unmade on a {@link ChessGame} arrive as the same
+ * individual placements and removals.
+ * <p>
+ * Callbacks run inside board updates on the hot path of move generation and
+ * search, so implementations should do a few array updates and nothing more.
+ */
+public interface BoardListener {
+
+    /**
+     * @param square the square the piece was put on (see {@link Bitboards})
+     */
+    void piecePlaced(ChessPiece piece, int square);
+
+    void pieceRemoved(ChessPiece piece, int square);
+
+    /**
+     * Every piece was removed at once, as when the board is reset.
+     */
+    void boardCleared();
+}
@@ -1,50 +1,63 @@
 package chess;
 
+import java.util.Arrays;
+
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Pieces are stored as twelve bitboards (one per color and piece type) plus
+ * one occupancy mask per color. See {@link Bitboards} for the square numbering.
  */
 public class ChessBoard {
 
-    private ChessPiece[][] board = new ChessPiece[8][8];  // row 0 = row 1, etc.
+
+    // index = color.ordinal() * 6 + type.ordinal()
+    private final long[] pieces = new long[12];
+    private final long[] occupancy = new long[2];
+
+    // Zobrist key of the pieces alone. Built lazily from the bitboards (so boards
+    // filled in by Gson start out correct), then kept up to date by put/remove.
+    private transient long pieceKey;
+    private transient boolean pieceKeyValid;
+
+    // Every square each side attacks, indexed by color ordinal. A side's map is
+    // rebuilt on first use after a piece moves; bit c of attacksValid is set
+    // while the map for color ordinal c is current.
+    private transient long[] attacks = new long[2];
+    private transient int attacksValid;
+
+    // Notified of every piece placed or removed; belongs to this board only, so not copied
+    private transient BoardListener listener;
 
 
     public ChessBoard() {
 
     }
 
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
+        pieceKey = other.pieceKey;
+        pieceKeyValid = other.pieceKeyValid;
+        System.arraycopy(other.attacks, 0, attacks, 0, attacks.length);
+        attacksValid = other.attacksValid;
+    }
+
 //    Adding hashcode and equals
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ChessBoard other)) return false;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece thisPiece = this.board[row][col];
-                ChessPiece otherPiece = other.board[row][col];
-
-                if (thisPiece == null && otherPiece != null) return false;
-                if (thisPiece != null && !thisPiece.equals(otherPiece)) return false;
-            }
-        }
-
-        return true;
+        return Arrays.equals(pieces, other.pieces);
     }
 
     @Override
     public int hashCode() {
-        int result = 1;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board[row][col];
-                result = 31 * result + (piece == null ? 0 : piece.hashCode());
-            }
-        }
-        return result;
+        return Long.hashCode(pieceKey());
     }
 
     /**
@@ -54,15 +67,15 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        int row = position.getRow() - 1;
-        int col = position.getColumn() - 1;
-        board[row][col] = piece;
+        int square = Bitboards.square(position);
+        clearSquare(square);
+        if (piece != null) {
+            setPiece(square, piece.getTeamColor(), piece.getPieceType());
+        }
     }
 
     public ChessPiece getPiece(ChessPosition position) {
-        int row = position.getRow() - 1;
-        int col = position.getColumn() - 1;
-        return board[row][col];
+        return pieceAt(Bitboards.square(position));
     }
 
     /**
@@ -71,7 +84,13 @@ public class ChessBoard {
      */
     public void resetBoard() {
         // Clear the board
-        board = new ChessPiece[8][8];
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(occupancy, 0L);
+        pieceKeyValid = false;
+        attacksValid = 0;
+        if (listener != null) {
+            listener.boardCleared();
+        }
 
         // Back row piece order
         ChessPiece.PieceType[] backRow = {
@@ -85,16 +104,208 @@ public class ChessBoard {
                 ChessPiece.PieceType.ROOK
         };
 
-        // Set up white pieces (row 1 and 2)
-        for (int col = 0; col < 8; col++) {
-            board[0][col] = new ChessPiece(ChessGame.TeamColor.WHITE, backRow[col]); // row 1
-            board[1][col] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN); // row 2
+        for (int col = 1; col <= 8; col++) {
+            setPiece(Bitboards.square(1, col), ChessGame.TeamColor.WHITE, backRow[col - 1]);
+            setPiece(Bitboards.square(2, col), ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+            setPiece(Bitboards.square(8, col), ChessGame.TeamColor.BLACK, backRow[col - 1]);
+            setPiece(Bitboards.square(7, col), ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        }
+    }
+
+    /**
+     * Sets the single listener told about every change to this board, replacing
+     * any previous one.
+     *
+     * @param listener the listener, or null to stop notifying
+     */
+    public void setListener(BoardListener listener) {
+        this.listener = listener;
+    }
+
+    public BoardListener getListener() {
+        return listener;
+    }
+
+    // ---------------- Bitboard access ----------------
+
+    static int index(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return the squares holding pieces of the given color and type, as a {@link Bitboards} mask
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[index(color, type)];
+    }
+
+    /**
+     * @return the squares holding pieces of the given color
+     */
+    public long occupancy(ChessGame.TeamColor color) {
+        return occupancy[color.ordinal()];
+    }
+
+    public long occupied() {
+        return occupancy[0] | occupancy[1];
+    }
+
+    /**
+     * @return the piece on {@code square} (see {@link Bitboards}), or null if it is empty
+     */
+    public ChessPiece pieceAt(int square) {
+        int index = pieceIndexAt(square);
+        if (index < 0) {
+            return null;
+        }
+        return ChessPiece.ofIndex(index);
+    }
+
+    /**
+     * @return the bitboard index of the piece on {@code square}, or -1 if it is empty
+     */
+    int pieceIndexAt(int square) {
+        long b = Bitboards.bit(square);
+        if ((occupied() & b) == 0) {
+            return -1;
+        }
+        int base = (occupancy[0] & b) != 0 ? 0 : 6;
+        for (int t = 0; t < 6; t++) {
+            if ((pieces[base + t] & b) != 0) {
+                return base + t;
+            }
+        }
+        return -1;
+    }
+
+    void setPiece(int square, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        put(square, index(color, type));
+    }
+
+    void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index >= 0) {
+            remove(square, index);
+        }
+    }
+
+    // Raw updates used by make/unmake; the caller guarantees the square state
+    void put(int square, int index) {
+        long b = Bitboards.bit(square);
+        pieces[index] |= b;
+        occupancy[index / 6] |= b;
+        attacksValid = 0;
+        if (pieceKeyValid) {
+            pieceKey ^= Zobrist.piece(index, square);
+        }
+        if (listener != null) {
+            listener.piecePlaced(ChessPiece.ofIndex(index), square);
+        }
+    }
+
+    void remove(int square, int index) {
+        long keep = ~Bitboards.bit(square);
+        pieces[index] &= keep;
+        occupancy[index / 6] &= keep;
+        attacksValid = 0;
+        if (pieceKeyValid) {
+            pieceKey ^= Zobrist.piece(index, square);
         }
+        if (listener != null) {
+            listener.pieceRemoved(ChessPiece.ofIndex(index), square);
+        }
+    }
 
-        // Set up black pieces (row 8 and 7)
-        for (int col = 0; col < 8; col++) {
-            board[7][col] = new ChessPiece(ChessGame.TeamColor.BLACK, backRow[col]); // row 8
-            board[6][col] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN); // row 7
+    /**
+     * @return the Zobrist key of the pieces on this board (see {@link Zobrist})
+     */
+    long pieceKey() {
+        if (!pieceKeyValid) {
+            long key = 0L;
+            for (int index = 0; index < pieces.length; index++) {
+                for (long b = pieces[index]; b != 0; b &= b - 1) {
+                    key ^= Zobrist.piece(index, Long.numberOfTrailingZeros(b));
+                }
+            }
+            pieceKey = key;
+            pieceKeyValid = true;
         }
+        return pieceKey;
+    }
+
+    /**
+     * @return the square of the given team's king, or -1 if it has none
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        long king = pieces(color, ChessPiece.PieceType.KING);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Slider attacks are traced through {@code occupied} rather than the real
+     * board, so callers can remove pieces from it to reveal x-ray attackers.
+     *
+     * @return every piece of {@code attacker} that attacks {@code square} given the occupancy {@code occupied}
+     */
+    public long attackersTo(int square, ChessGame.TeamColor attacker, long occupied) {
+        ChessGame.TeamColor defender = attacker == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieces(attacker, ChessPiece.PieceType.QUEEN);
+        return (Bitboards.pawnAttacks(defender, square) & pieces(attacker, ChessPiece.PieceType.PAWN))
+                | (Bitboards.knightAttacks(square) & pieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.kingAttacks(square) & pieces(attacker, ChessPiece.PieceType.KING))
+                | (Bitboards.rookAttacks(square, occupied) & (pieces(attacker, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(square, occupied) & (pieces(attacker, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return (attacks(attacker) & Bitboards.bit(square)) != 0;
+    }
+
+    /**
+     * @return every square attacked by at least one piece of {@code attacker}
+     */
+    long attacks(ChessGame.TeamColor attacker) {
+        int side = attacker.ordinal();
+        if ((attacksValid & (1 << side)) == 0) {
+            attacks[side] = computeAttacks(attacker);
+            attacksValid |= 1 << side;
+        }
+        return attacks[side];
+    }
+
+    // Make/unmake hand the cached maps back after a move is taken back, so they survive the round trip
+    void saveAttacks(long[] into, int offset) {
+        into[offset] = attacks[0];
+        into[offset + 1] = attacks[1];
+        into[offset + 2] = attacksValid;
+    }
+
+    void restoreAttacks(long[] from, int offset) {
+        attacks[0] = from[offset];
+        attacks[1] = from[offset + 1];
+        attacksValid = (int) from[offset + 2];
+    }
+
+    private long computeAttacks(ChessGame.TeamColor attacker) {
+        long occupied = occupied();
+        long pawns = pieces(attacker, ChessPiece.PieceType.PAWN);
+        long result = attacker == ChessGame.TeamColor.WHITE
+                ? ((pawns & ~Bitboards.FILE_A) << 7) | ((pawns & ~Bitboards.FILE_H) << 9)
+                : ((pawns & ~Bitboards.FILE_A) >>> 9) | ((pawns & ~Bitboards.FILE_H) >>> 7);
+        for (long b = pieces(attacker, ChessPiece.PieceType.KNIGHT); b != 0; b &= b - 1) {
+            result |= Bitboards.knightAttacks(Long.numberOfTrailingZeros(b));
+        }
+        long queens = pieces(attacker, ChessPiece.PieceType.QUEEN);
+        for (long b = pieces(attacker, ChessPiece.PieceType.BISHOP) | queens; b != 0; b &= b - 1) {
+            result |= Bitboards.bishopAttacks(Long.numberOfTrailingZeros(b), occupied);
+        }
+        for (long b = pieces(attacker, ChessPiece.PieceType.ROOK) | queens; b != 0; b &= b - 1) {
+            result |= Bitboards.rookAttacks(Long.numberOfTrailingZeros(b), occupied);
+        }
+        for (long b = pieces(attacker, ChessPiece.PieceType.KING); b != 0; b &= b - 1) {
+            result |= Bitboards.kingAttacks(Long.numberOfTrailingZeros(b));
+        }
+        return result;
     }
 }
@@ -3,22 +3,62 @@ package chess;
 import java.util.*;
 
 public class ChessGame {
+    // Castling rights bits
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+
+    // Rights that survive a move touching each square (rook corners only; king moves clear both sides)
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[Bitboards.square(1, 1)] = ALL_CASTLING & ~WHITE_QUEENSIDE;
+        CASTLING_MASK[Bitboards.square(1, 8)] = ALL_CASTLING & ~WHITE_KINGSIDE;
+        CASTLING_MASK[Bitboards.square(8, 1)] = ALL_CASTLING & ~BLACK_QUEENSIDE;
+        CASTLING_MASK[Bitboards.square(8, 8)] = ALL_CASTLING & ~BLACK_KINGSIDE;
+    }
+
+    // Undo record layout (packed into a long so make/unmake allocates nothing):
+    //  bits  0-5  from square        bits 20-23 castling rights before the move
+    //  bits  6-11 to square          bits 24-30 en passant square before the move + 1 (0 = none)
+    //  bits 12-15 moved piece index  bit  31    team to move before the move
+    //  bits 16-19 captured index + 1 bits 32-34 promotion type ordinal + 1 (0 = none)
+    //  bit  35    en passant capture bit  36    castling move
+    //  bits 40-55 halfmove clock before the move
+    private static final long EN_PASSANT_FLAG = 1L << 35;
+    private static final long CASTLE_FLAG = 1L << 36;
+    // Largest halfmove clock or fullmove number kept; the clock has 16 bits of the undo record
+    static final int MAX_CLOCK = 0xFFFF;
+    // Halfmove clock at which either player may claim a draw (fifty moves each)
+    static final int FIFTY_MOVE_CLOCK = 100;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
     private ChessBoard board;
     private TeamColor teamTurn;
 
-    // Move tracking for castling
-    private boolean whiteKingMoved = false;
-    private boolean whiteKingsideRookMoved = false;
-    private boolean whiteQueensideRookMoved = false;
-    private boolean blackKingMoved = false;
-    private boolean blackKingsideRookMoved = false;
-    private boolean blackQueensideRookMoved = false;
+    // Castling rights still available (WHITE_KINGSIDE | ... bits)
+    private int castlingRights = ALL_CASTLING;
 
-    // Tracking en passant
-    private ChessPosition enPassantTarget = null;
-    private ChessPosition chessPosition;
-    private TeamColor col;
-    private ChessBoard b;
+    // Tracking en passant: square a pawn just skipped over, or -1
+    private int enPassantSquare = -1;
+
+    // Plies since the last capture or pawn move, and the move number (starting at 1, bumped after black moves)
+    private int halfmoveClock = 0;
+    private int fullmoveNumber = 1;
+
+    // Undo records for makeMove/makeMoveUnchecked, most recent last
+    private transient long[] undoStack = new long[16];
+    private transient int undoCount = 0;
+    // Zobrist key of the position before each move on the undo stack, for repetition checks
+    private transient long[] keyStack = new long[16];
+    // Attack maps cached before each move (three longs per undo record), restored on unmake
+    private transient long[] attackStack = new long[48];
+    // Reused by the yes/no queries (move legality, mate, stalemate) so they allocate nothing
+    private transient MoveList scratch = new MoveList();
 
     public ChessGame() {
         board = new ChessBoard();
@@ -26,6 +66,47 @@ public class ChessGame {
         teamTurn = TeamColor.WHITE;
     }
 
+    /**
+     * Creates an independent copy of another game's position. Move history
+     * is not copied, so the copy starts with nothing to unmake.
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        teamTurn = other.teamTurn;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+    }
+
+    // Takes ownership of board; used by GameCodec and Fen
+    ChessGame(ChessBoard board, TeamColor teamTurn, int castlingRights, int enPassantSquare,
+              int halfmoveClock, int fullmoveNumber) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Reads a position in Forsyth-Edwards Notation. The halfmove and fullmove
+     * fields may be left off, in which case they are 0 and 1.
+     *
+     * @throws IllegalArgumentException if {@code fen} is not a valid FEN record
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return this position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
     public boolean isUnderAttack(ChessPosition pos, TeamColor color, ChessBoard board) {
         return isPositionUnderAttack(pos, color, board);
     }
@@ -49,9 +130,11 @@ public class ChessGame {
     public void setBoard(ChessBoard board) {
         this.board = board;
         // Reset castling / en passant state
-        whiteKingMoved = whiteKingsideRookMoved = whiteQueensideRookMoved =
-                blackKingMoved = blackKingsideRookMoved = blackQueensideRookMoved = false;
-        enPassantTarget = null;
+        castlingRights = ALL_CASTLING;
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
     }
 
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
@@ -62,25 +145,46 @@ public class ChessGame {
             return Collections.emptyList();
         }
 
-        // Get pseudo-legal moves (may include illegal moves like exposing king to check)
-        Collection<ChessMove> pseudo = piece.pieceMoves(board, startPosition, this);
-        List<ChessMove> legal = new ArrayList<>();
-
-        for (ChessMove move : pseudo) {
-            // Clone board to simulate move
-            ChessBoard simulated = cloneBoard(board);
-            simulateMove(simulated, move);
+        MoveList legal = scratch();
+        MoveGenerator.generate(this, piece.getTeamColor(), Bitboards.bit(Bitboards.square(startPosition)), legal);
+        return legal.toChessMoves();
+    }
 
-            // Find the king position after the move
-            ChessPosition kingPos = findKingPosition(piece.getTeamColor(), simulated);
+    /**
+     * Generates every legal move for the team whose turn it is. Checkers and
+     * pinned pieces are found once, so no move has to be tried and taken back.
+     *
+     * @return all legal moves for {@link #getTeamTurn()}
+     */
+    public Collection<ChessMove> legalMoves() {
+        return getAllLegalMoves(teamTurn).toChessMoves();
+    }
 
-            // Only allow move if it doesn't leave king in check
-            if (kingPos != null && !isPositionUnderAttack(kingPos, piece.getTeamColor(), simulated)) {
-                legal.add(move);
-            }
-        }
+    /**
+     * Fills {@code moves} with every legal move for the team whose turn it is,
+     * encoded as {@link Move} ints. The list is cleared first, so one list can
+     * be reused for every position searched at the same ply.
+     *
+     * @param moves the list to fill
+     * @return the number of legal moves
+     */
+    public int generateLegalMoves(MoveList moves) {
+        moves.clear();
+        MoveGenerator.generate(this, teamTurn, -1L, moves);
+        return moves.size();
+    }
 
-        return legal;
+    /**
+     * Like {@link #generateLegalMoves(MoveList)}, but only captures (including
+     * en passant) and promotions, as used by a quiescence search.
+     *
+     * @param moves the list to fill
+     * @return the number of legal captures and promotions
+     */
+    public int generateLegalCaptures(MoveList moves) {
+        moves.clear();
+        MoveGenerator.generate(this, teamTurn, -1L, true, moves);
+        return moves.size();
     }
 
     public void makeMove(ChessMove move) throws InvalidMoveException {
@@ -89,78 +193,88 @@ public class ChessGame {
             throw new InvalidMoveException("Invalid move or not your piece");
         }
 
-        Collection<ChessMove> legal = validMoves(move.getStartPosition());
-        if (legal == null || !legal.contains(move)) {
+        MoveList legal = scratch();
+        MoveGenerator.generate(this, teamTurn, Bitboards.bit(Bitboards.square(move.getStartPosition())), legal);
+        if (legal.indexOf(Move.fromChessMove(move)) < 0) {
             throw new InvalidMoveException("Move is not valid");
         }
 
-        ChessPosition s = move.getStartPosition();
-        ChessPosition e = move.getEndPosition();
+        play(move);
+    }
 
-        // Handle en passant capture
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN
-                && s.getColumn() != e.getColumn()
-                && board.getPiece(e) == null) {
-            int dir = (piece.getTeamColor() == TeamColor.WHITE) ? -1 : 1;
-            ChessPosition captured = new ChessPosition(e.getRow() + dir, e.getColumn());
-            board.addPiece(captured, null);
-        }
+    /**
+     * Plays a move in place without checking that it is legal. The move must at
+     * least be pseudo-legal for the piece on its start square.
+     * Take it back with {@link #unmakeMove()}.
+     *
+     * @param move the move to play
+     */
+    public void makeMoveUnchecked(ChessMove move) {
+        play(move);
+    }
 
-        // Make the move / Promotion
-        board.addPiece(e, new ChessPiece(piece.getTeamColor(),
-                move.getPromotionPiece() != null ? move.getPromotionPiece() : piece.getPieceType()));
-        board.addPiece(s, null);
+    /**
+     * Plays a packed {@link Move} in place without checking that it is legal,
+     * typically one produced by {@link #generateLegalMoves(MoveList)}.
+     * Take it back with {@link #unmakeMove()}.
+     *
+     * @param move the move to play
+     */
+    public void makeMoveUnchecked(int move) {
+        play(Move.from(move), Move.to(move), Move.promotion(move));
+    }
 
-        // Handle castling rook reposition
-        if (piece.getPieceType() == ChessPiece.PieceType.KING
-                && Math.abs(e.getColumn() - s.getColumn()) == 2) {
-            int row = s.getRow();
-            if (e.getColumn() == 7) {
-                // King-side castling
-                ChessPosition rStart = new ChessPosition(row, 8);
-                ChessPosition rEnd = new ChessPosition(row, 6);
-                board.addPiece(rEnd, board.getPiece(rStart));
-                board.addPiece(rStart, null);
-            } else {
-                // Queen-side castling
-                ChessPosition rStart = new ChessPosition(row, 1);
-                ChessPosition rEnd = new ChessPosition(row, 4);
-                board.addPiece(rEnd, board.getPiece(rStart));
-                board.addPiece(rStart, null);
-            }
+    /**
+     * Takes back the most recent move made with {@link #makeMove(ChessMove)} or
+     * {@link #makeMoveUnchecked(ChessMove)}, restoring the captured piece,
+     * castling rights, en passant square and team to move.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
         }
+        undoMove(undoStack[--undoCount]);
+        board.restoreAttacks(attackStack, undoCount * 3);
+    }
 
-        // Track en passant state for next move
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN
-                && Math.abs(e.getRow() - s.getRow()) == 2) {
-            int targetRow = (s.getRow() + e.getRow()) / 2;
-            enPassantTarget = new ChessPosition(targetRow, s.getColumn());
-        } else {
-            enPassantTarget = null;
-        }
+    /**
+     * @return how many moves {@link #unmakeMove()} can take back, which is also
+     * how far back {@link #getRepetitionCount()} can see
+     */
+    public int getHistoryLength() {
+        return undoCount;
+    }
 
-        // Track king and rook first-move flags
-        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-            if (teamTurn == TeamColor.WHITE) whiteKingMoved = true;
-            else blackKingMoved = true;
+    /**
+     * Returns the 64-bit Zobrist key of the current position: the pieces, the
+     * team to move, the castling rights and the file of an en passant square
+     * that can actually be captured on. The piece part is updated as moves are
+     * made and unmade, so this is O(1) and suitable for keying caches,
+     * repetition checks and transposition tables.
+     *
+     * @return the position key
+     */
+    public long getZobristKey() {
+        long key = board.pieceKey() ^ Zobrist.castling(castlingRights);
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
         }
-        if (piece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            boolean white = teamTurn == TeamColor.WHITE;
-            if (white) {
-                if (s.getRow() == 1 && s.getColumn() == 1) whiteQueensideRookMoved = true;
-                if (s.getRow() == 1 && s.getColumn() == 8) whiteKingsideRookMoved = true;
-            } else {
-                if (s.getRow() == 8 && s.getColumn() == 1) blackQueensideRookMoved = true;
-                if (s.getRow() == 8 && s.getColumn() == 8) blackKingsideRookMoved = true;
-            }
+        if (enPassantSquare >= 0 && (Bitboards.pawnAttacks(opponent(teamTurn), enPassantSquare)
+                & board.pieces(teamTurn, ChessPiece.PieceType.PAWN)) != 0) {
+            key ^= Zobrist.enPassant(enPassantSquare);
         }
-
-        teamTurn = (teamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+        return key;
     }
 
+    /**
+     * Looks the king up in its bitboard and tests it against the opponent's
+     * cached attack map, so repeated checks on one position are constant time.
+     */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kp = findKingPosition(teamColor, board);
-        return kp != null && isPositionUnderAttack(kp, teamColor, board);
+        long king = board.pieces(teamColor, ChessPiece.PieceType.KING);
+        return (board.attacks(opponent(teamColor)) & king) != 0;
     }
 
     public boolean isInCheckmate(TeamColor teamColor) {
@@ -168,120 +282,233 @@ public class ChessGame {
     }
 
     public boolean isInStalemate(TeamColor team) {
-        if (isInCheck(team)) return false;
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() == team) {
-                    Collection<ChessMove> moves = validMoves(pos);
-                    if (!moves.isEmpty()) {
-                        return false;
-                    }
-                }
+        return !isInCheck(team) && getAllLegalMoves(team).isEmpty();
+    }
+
+    /**
+     * Counts how many times the current position has occurred, this time
+     * included. Only positions since the last capture or pawn move can repeat
+     * it, so the scan compares keys at every other ply back that far and no
+     * further. Positions from before the game was loaded or copied (see
+     * {@link #ChessGame(ChessGame)}) are not known.
+     *
+     * @return 1 if the position is new, 2 if it has been seen once before, ...
+     */
+    public int getRepetitionCount() {
+        long key = getZobristKey();
+        int count = 1;
+        int limit = Math.min(halfmoveClock, undoCount);
+        for (int back = 2; back <= limit; back += 2) {
+            if (keyStack[undoCount - back] == key) {
+                count++;
             }
         }
-        return true;
+        return count;
     }
 
-    // ---------------- Helper Functions ----------------
+    /**
+     * @return true if the current position has occurred three times
+     */
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 3;
+    }
 
-    private ChessBoard cloneBoard(ChessBoard orig) {
-        ChessBoard copy = new ChessBoard();
-        for (int r = 1; r <= 8; r++)
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition p = new ChessPosition(r, c);
-                ChessPiece pc = orig.getPiece(p);
-                if (pc != null) copy.addPiece(p, new ChessPiece(pc.getTeamColor(), pc.getPieceType()));
-            }
-        return copy;
-    }
-
-    private void simulateMove(ChessBoard b, ChessMove m) {
-        ChessPiece pc = b.getPiece(m.getStartPosition());
-        b.addPiece(m.getEndPosition(), new ChessPiece(pc.getTeamColor(),
-                m.getPromotionPiece() != null ? m.getPromotionPiece() : pc.getPieceType()));
-        b.addPiece(m.getStartPosition(), null);
-
-        if (pc.getPieceType() == ChessPiece.PieceType.KING
-                && Math.abs(m.getEndPosition().getColumn() - m.getStartPosition().getColumn()) == 2) {
-            int row = m.getStartPosition().getRow();
-            if (m.getEndPosition().getColumn() == 7) {
-                ChessPosition rStart = new ChessPosition(row, 8);
-                ChessPosition rEnd = new ChessPosition(row, 6);
-                b.addPiece(rEnd, b.getPiece(rStart));
-                b.addPiece(rStart, null);
-            } else {
-                ChessPosition rStart = new ChessPosition(row, 1);
-                ChessPosition rEnd = new ChessPosition(row, 4);
-                b.addPiece(rEnd, b.getPiece(rStart));
-                b.addPiece(rStart, null);
-            }
+    /**
+     * @return true if fifty moves each have been played without a capture or pawn move
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= FIFTY_MOVE_CLOCK;
+    }
+
+    /**
+     * A game is drawn by stalemate, threefold repetition or the fifty-move
+     * rule, unless the move that reached the fiftieth gave checkmate.
+     *
+     * @return true if the game is drawn in the current position
+     */
+    public boolean isDraw() {
+        if (isThreefoldRepetition()) {
+            return true;
         }
+        boolean noMoves = getAllLegalMoves(teamTurn).isEmpty();
+        return noMoves ? !isInCheck(teamTurn) : isFiftyMoveRule();
     }
 
-    private ChessPosition findKingPosition(TeamColor teamColor, ChessBoard brd) {
-        for (int r = 1; r <= 8; r++)
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition p = new ChessPosition(r, c);
-                ChessPiece pc = brd.getPiece(p);
-                if (pc != null && pc.getTeamColor() == teamColor
-                        && pc.getPieceType() == ChessPiece.PieceType.KING)
-                    return p;
-            }
-        return null;
+    // ---------------- Make / unmake ----------------
+
+    private void play(ChessMove move) {
+        play(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
     }
 
-    private boolean isPositionUnderAttack(ChessPosition pos, TeamColor defender, ChessBoard brd) {
-        TeamColor attacker = (defender == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
-
-        ChessGame dummyGame = new ChessGame();
-        dummyGame.setBoard(brd);  // mimic game state
-
-        for (int r = 1; r <= 8; r++) {
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition check = new ChessPosition(r, c);
-                ChessPiece pc = brd.getPiece(check);
-                if (pc != null && pc.getTeamColor() == attacker) {
-                    // ⚠️ Skip castling when checking for attack!
-                    for (ChessMove m : pc.pieceMoves(brd, check, dummyGame, false)) {
-                        if (m.getEndPosition().equals(pos)) {
-                            return true;
-                        }
-                    }
-                }
-            }
+    private void play(int from, int to, ChessPiece.PieceType promotion) {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+            keyStack = Arrays.copyOf(keyStack, undoCount * 2);
+            attackStack = Arrays.copyOf(attackStack, undoCount * 6);
         }
-        return false;
-    }
-
-    private List<ChessMove> getAllLegalMoves(TeamColor teamColor) {
-        List<ChessMove> all = new ArrayList<>();
-        for (int r = 1; r <= 8; r++)
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition p = new ChessPosition(r, c);
-                ChessPiece pc = board.getPiece(p);
-                if (pc != null && pc.getTeamColor() == teamColor) {
-                    Collection<ChessMove> m = validMoves(p);
-                    if (m != null) all.addAll(m);
-                }
-            }
+        board.saveAttacks(attackStack, undoCount * 3);
+        keyStack[undoCount] = getZobristKey();
+        undoStack[undoCount++] = doMove(from, to, promotion);
+    }
+
+    /**
+     * Applies a move to the board and game state in place.
+     *
+     * @return the undo record to pass to {@link #undoMove(long)}
+     */
+    long doMove(int from, int to, ChessPiece.PieceType promotion) {
+        int moving = board.pieceIndexAt(from);
+        int captured = board.pieceIndexAt(to);
+        int color = moving / 6;
+        ChessPiece.PieceType type = TYPES[moving % 6];
+
+        long undo = from | (to << 6) | ((long) moving << 12) | ((long) (captured + 1) << 16)
+                | ((long) castlingRights << 20) | ((long) (enPassantSquare + 1) << 24)
+                | ((long) teamTurn.ordinal() << 31)
+                | (promotion == null ? 0L : (long) (promotion.ordinal() + 1) << 32)
+                | ((long) halfmoveClock << 40);
+
+        if (captured >= 0) {
+            board.remove(to, captured);
+        }
+
+        // Handle en passant capture: a pawn moving diagonally onto an empty square
+        if (type == ChessPiece.PieceType.PAWN && captured < 0 && ((from ^ to) & 7) != 0) {
+            int capturedSquare = color == 0 ? to - 8 : to + 8;
+            board.remove(capturedSquare, (1 - color) * 6 + ChessPiece.PieceType.PAWN.ordinal());
+            undo |= EN_PASSANT_FLAG;
+        }
+
+        // Make the move / Promotion
+        board.remove(from, moving);
+        board.put(to, promotion == null ? moving : color * 6 + promotion.ordinal());
+
+        // Handle castling rook reposition
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            int rook = color * 6 + ChessPiece.PieceType.ROOK.ordinal();
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            board.remove(rookFrom, rook);
+            board.put(rookTo, rook);
+            undo |= CASTLE_FLAG;
+        }
+
+        // Track en passant state for next move
+        enPassantSquare = type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16 ? (from + to) / 2 : -1;
+
+        // Moving the king, or anything on/onto a rook corner, gives up castling rights
+        if (type == ChessPiece.PieceType.KING) {
+            castlingRights &= color == 0 ? ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) : ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        }
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+
+        halfmoveClock = type == ChessPiece.PieceType.PAWN || captured >= 0 ? 0 : Math.min(halfmoveClock + 1, MAX_CLOCK);
+        if (color == 1) {
+            fullmoveNumber++;
+        }
+        teamTurn = color == 0 ? TeamColor.BLACK : TeamColor.WHITE;
+        return undo;
+    }
+
+    /**
+     * Reverses a move applied by {@link #doMove(int, int, ChessPiece.PieceType)}.
+     */
+    void undoMove(long undo) {
+        int from = (int) (undo & 63);
+        int to = (int) ((undo >>> 6) & 63);
+        int moving = (int) ((undo >>> 12) & 15);
+        int captured = (int) ((undo >>> 16) & 15) - 1;
+        int promotion = (int) ((undo >>> 32) & 7) - 1;
+        int color = moving / 6;
+
+        castlingRights = (int) ((undo >>> 20) & 15);
+        enPassantSquare = (int) ((undo >>> 24) & 127) - 1;
+        teamTurn = ((undo >>> 31) & 1) == 0 ? TeamColor.WHITE : TeamColor.BLACK;
+        halfmoveClock = (int) ((undo >>> 40) & MAX_CLOCK);
+        if (color == 1) {
+            fullmoveNumber--;
+        }
+
+        if ((undo & CASTLE_FLAG) != 0) {
+            int rook = color * 6 + ChessPiece.PieceType.ROOK.ordinal();
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            board.remove(rookTo, rook);
+            board.put(rookFrom, rook);
+        }
+
+        board.remove(to, promotion < 0 ? moving : color * 6 + promotion);
+        board.put(from, moving);
+
+        if (captured >= 0) {
+            board.put(to, captured);
+        }
+        if ((undo & EN_PASSANT_FLAG) != 0) {
+            int capturedSquare = color == 0 ? to - 8 : to + 8;
+            board.put(capturedSquare, (1 - color) * 6 + ChessPiece.PieceType.PAWN.ordinal());
+        }
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    private static TeamColor opponent(TeamColor color) {
+        return color == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    private boolean isPositionUnderAttack(ChessPosition pos, TeamColor defender, ChessBoard brd) {
+        return brd.isSquareAttacked(Bitboards.square(pos), opponent(defender));
+    }
+
+    private MoveList getAllLegalMoves(TeamColor teamColor) {
+        MoveList all = scratch();
+        MoveGenerator.generate(this, teamColor, -1L, all);
         return all;
     }
 
+    private MoveList scratch() {
+        if (scratch == null) {
+            scratch = new MoveList();
+        }
+        scratch.clear();
+        return scratch;
+    }
+
     // Exposed to ChessPiece for castling/en passant support
-    boolean hasKingMoved(TeamColor color) {
-        return color == TeamColor.WHITE ? whiteKingMoved : blackKingMoved;
+    boolean canCastle(TeamColor color, boolean kingside) {
+        int right = color == TeamColor.WHITE
+                ? (kingside ? WHITE_KINGSIDE : WHITE_QUEENSIDE)
+                : (kingside ? BLACK_KINGSIDE : BLACK_QUEENSIDE);
+        return (castlingRights & right) != 0;
+    }
+    int castlingRights() {
+        return castlingRights;
     }
-    boolean hasKingsideRookMoved(TeamColor color) {
-        return color == TeamColor.WHITE ? whiteKingsideRookMoved : blackKingsideRookMoved;
+    void setCastlingRights(int rights) {
+        castlingRights = rights;
     }
-    boolean hasQueensideRookMoved(TeamColor color) {
-        return color == TeamColor.WHITE ? whiteQueensideRookMoved : blackQueensideRookMoved;
+    int enPassantSquare() {
+        return enPassantSquare;
+    }
+    void setEnPassantSquare(int square) {
+        enPassantSquare = square;
+    }
+
+    /**
+     * @return plies played since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current move, starting at 1 and incremented after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
     }
     ChessPosition getEnPassantTarget() {
-        return enPassantTarget;
+        return enPassantSquare < 0 ? null : Bitboards.position(enPassantSquare);
     }
 
     // ---------------- equals() and hashCode() ----------------
@@ -293,27 +520,12 @@ public class ChessGame {
 
         return Objects.equals(this.board, other.board) &&
                 this.teamTurn == other.teamTurn &&
-                this.whiteKingMoved == other.whiteKingMoved &&
-                this.whiteKingsideRookMoved == other.whiteKingsideRookMoved &&
-                this.whiteQueensideRookMoved == other.whiteQueensideRookMoved &&
-                this.blackKingMoved == other.blackKingMoved &&
-                this.blackKingsideRookMoved == other.blackKingsideRookMoved &&
-                this.blackQueensideRookMoved == other.blackQueensideRookMoved &&
-                Objects.equals(this.enPassantTarget, other.enPassantTarget);
+                this.castlingRights == other.castlingRights &&
+                this.enPassantSquare == other.enPassantSquare;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(
-                board,
-                teamTurn,
-                whiteKingMoved,
-                whiteKingsideRookMoved,
-                whiteQueensideRookMoved,
-                blackKingMoved,
-                blackKingsideRookMoved,
-                blackQueensideRookMoved,
-                enPassantTarget
-        );
+        return Long.hashCode(getZobristKey());
     }
 }
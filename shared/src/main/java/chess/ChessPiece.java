@@ -3,6 +3,17 @@ package chess;
 import java.util.*;
 
 public class ChessPiece {
+    // Shared instances, indexed like ChessBoard bitboards (color * 6 + type)
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
@@ -11,6 +22,18 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Returns the shared instance for a color and type instead of allocating a
+     * new one. Pieces are immutable, so this is interchangeable with the constructor.
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    static ChessPiece ofIndex(int index) {
+        return PIECES[index];
+    }
+
     public ChessGame.TeamColor getTeamColor() { return pieceColor; }
     public PieceType getPieceType() { return type; }
 
@@ -22,7 +45,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return pieceColor.ordinal() * 6 + type.ordinal();
     }
 
     @Override
@@ -47,23 +70,23 @@ public class ChessPiece {
                         if (dr==0 && dc==0) continue;
                         int rr = r+dr, cc = c+dc;
                         if (inBounds(rr,cc))
-                            addIfValid(board, from, new ChessPosition(rr,cc), moves);
+                            addIfValid(board, from, ChessPosition.of(rr,cc), moves);
                     }
                 if (includeCastling) {
                     addCastling(board, from, moves, game);
                 }
             }
             case QUEEN -> addSliding(board, from, moves,
-                    new int[][]{{1,0},{-1,0},{0,1},{0,-1},{1,1},{1,-1},{-1,1},{-1,-1}});
+                    Bitboards.queenAttacks(Bitboards.square(from), board.occupied()));
             case ROOK -> addSliding(board, from, moves,
-                    new int[][]{{1,0},{-1,0},{0,1},{0,-1}});
+                    Bitboards.rookAttacks(Bitboards.square(from), board.occupied()));
             case BISHOP -> addSliding(board, from, moves,
-                    new int[][]{{1,1},{1,-1},{-1,1},{-1,-1}});
+                    Bitboards.bishopAttacks(Bitboards.square(from), board.occupied()));
             case KNIGHT -> {
                 for(int[] d : new int[][]{{2,1},{1,2},{-1,2},{-2,1},{-2,-1},{-1,-2},{1,-2},{2,-1}}) {
                     int rr = r+d[0], cc = c+d[1];
                     if (inBounds(rr,cc))
-                        addIfValid(board, from, new ChessPosition(rr,cc), moves);
+                        addIfValid(board, from, ChessPosition.of(rr,cc), moves);
                 }
             }
             case PAWN -> {
@@ -72,19 +95,20 @@ public class ChessPiece {
                 int endR = pieceColor == ChessGame.TeamColor.WHITE ? 8 : 1;
 
                 // Forward
-                if (inBounds(r+dir,c) && board.getPiece(new ChessPosition(r+dir,c)) == null) {
+                if (inBounds(r+dir,c) && board.getPiece(ChessPosition.of(r+dir,c)) == null) {
                     addPawnMove(from, r+dir, c, endR, moves);
-                    if (r == startR && board.getPiece(new ChessPosition(r+2*dir,c)) == null)
-                        moves.add(new ChessMove(from, new ChessPosition(r+2*dir,c), null));
+                    if (r == startR && board.getPiece(ChessPosition.of(r+2*dir,c)) == null)
+                        moves.add(new ChessMove(from, ChessPosition.of(r+2*dir,c), null));
                 }
                 // Captures
                 for(int dc : new int[]{-1,1}) {
                     int cc2 = c+dc;
                     int rr2 = r+dir;
-                    ChessPosition capP = new ChessPosition(rr2, cc2);
-                    if (inBounds(rr2,cc2) && board.getPiece(capP) != null
-                            && board.getPiece(capP).getTeamColor() != pieceColor) {
-                        addPawnMove(from, rr2, cc2, endR, moves);
+                    if (inBounds(rr2,cc2)) {
+                        ChessPiece target = board.getPiece(ChessPosition.of(rr2, cc2));
+                        if (target != null && target.getTeamColor() != pieceColor) {
+                            addPawnMove(from, rr2, cc2, endR, moves);
+                        }
                     }
                     // En Passant
                     ChessPosition ep = game.getEnPassantTarget();
@@ -98,25 +122,22 @@ public class ChessPiece {
     }
 
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition from) {
-        ChessGame dummyGame = new ChessGame();
-        return pieceMoves(board, from, dummyGame, true);
-    }
-
-    private void addSliding(ChessBoard b, ChessPosition f, List<ChessMove> m, int[][] dirs) {
-        for (int[] d : dirs) {
-            int rr = f.getRow(), cc = f.getColumn();
-            while (true) {
-                rr += d[0]; cc += d[1];
-                if (!inBounds(rr,cc)) break;
-                ChessPosition to = new ChessPosition(rr, cc);
-                ChessPiece tgt = b.getPiece(to);
-                if (tgt == null) m.add(new ChessMove(f,to,null));
-                else {
-                    if (tgt.getTeamColor() != pieceColor)
-                        m.add(new ChessMove(f,to,null));
-                    break;
-                }
-            }
+        return pieceMoves(board, from, DefaultRules.GAME, true);
+    }
+
+    // A game that is never modified, standing in for one when only the board is known:
+    // castling rights are all available and there is no en passant square
+    private static final class DefaultRules {
+        private static final ChessGame GAME = new ChessGame();
+    }
+
+    // Attack sets come from the magic tables; only own-piece blockers need masking out
+    private void addSliding(ChessBoard b, ChessPosition f, List<ChessMove> m, long attacks) {
+        long targets = attacks & ~b.occupancy(pieceColor);
+        while (targets != 0) {
+            int sq = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            m.add(new ChessMove(f, Bitboards.position(sq), null));
         }
     }
 
@@ -127,7 +148,7 @@ public class ChessPiece {
     }
 
     private void addPawnMove(ChessPosition f, int rr, int cc, int endR, List<ChessMove> m) {
-        ChessPosition t = new ChessPosition(rr, cc);
+        ChessPosition t = ChessPosition.of(rr, cc);
         if (rr == endR) {
             for (PieceType p : new PieceType[]{PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT})
                 m.add(new ChessMove(f, t, p));
@@ -139,35 +160,42 @@ public class ChessPiece {
     private void addCastling(ChessBoard b, ChessPosition f, List<ChessMove> m, ChessGame game) {
         ChessGame.TeamColor col = pieceColor;
 
-        if ((col == ChessGame.TeamColor.WHITE && !f.equals(new ChessPosition(1, 5))) ||
-                (col == ChessGame.TeamColor.BLACK && !f.equals(new ChessPosition(8, 5)))) return;
-
-        if (game.hasKingMoved(col) || game.isInCheck(col)) return;
+        if ((col == ChessGame.TeamColor.WHITE && !f.equals(ChessPosition.of(1, 5))) ||
+                (col == ChessGame.TeamColor.BLACK && !f.equals(ChessPosition.of(8, 5)))) return;
 
         int row = f.getRow();
+        ChessPiece rook = ChessPiece.of(col, PieceType.ROOK);
+        ChessGame.TeamColor them = col == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long attacked = b.attacks(them);
 
         // Kingside
-        if (!game.hasKingsideRookMoved(col)
-                && b.getPiece(new ChessPosition(row, 6)) == null
-                && b.getPiece(new ChessPosition(row, 7)) == null
-                && !game.isUnderAttack(new ChessPosition(row, 5), col, b)
-                && !game.isUnderAttack(new ChessPosition(row, 6), col, b)
-                && !game.isUnderAttack(new ChessPosition(row, 7), col, b)) {
-            m.add(new ChessMove(f, new ChessPosition(row, 7), null));
+        if (game.canCastle(col, true)
+                && rook.equals(b.getPiece(ChessPosition.of(row, 8)))
+                && b.getPiece(ChessPosition.of(row, 6)) == null
+                && b.getPiece(ChessPosition.of(row, 7)) == null
+                && (attacked & castlingPath(row, 5, 7)) == 0) {
+            m.add(new ChessMove(f, ChessPosition.of(row, 7), null));
         }
 
         // Queenside
-        if (!game.hasQueensideRookMoved(col)
-                && b.getPiece(new ChessPosition(row, 4)) == null
-                && b.getPiece(new ChessPosition(row, 3)) == null
-                && b.getPiece(new ChessPosition(row, 2)) == null
-                && !game.isUnderAttack(new ChessPosition(row, 5), col, b)
-                && !game.isUnderAttack(new ChessPosition(row, 4), col, b)
-                && !game.isUnderAttack(new ChessPosition(row, 3), col, b)) {
-            m.add(new ChessMove(f, new ChessPosition(row, 3), null));
+        if (game.canCastle(col, false)
+                && rook.equals(b.getPiece(ChessPosition.of(row, 1)))
+                && b.getPiece(ChessPosition.of(row, 4)) == null
+                && b.getPiece(ChessPosition.of(row, 3)) == null
+                && b.getPiece(ChessPosition.of(row, 2)) == null
+                && (attacked & castlingPath(row, 3, 5)) == 0) {
+            m.add(new ChessMove(f, ChessPosition.of(row, 3), null));
         }
     }
 
+    // The squares the king starts on, crosses and lands on, none of which may be attacked
+    private static long castlingPath(int row, int fromCol, int toCol) {
+        long path = 0L;
+        for (int c = fromCol; c <= toCol; c++) {
+            path |= Bitboards.bit(Bitboards.square(row, c));
+        }
+        return path;
+    }
 
     private boolean inBounds(int rr, int cc) {
         return rr >= 1 && rr <= 8 && cc >= 1 && cc <= 8;
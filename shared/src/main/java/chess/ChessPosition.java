@@ -1,10 +1,18 @@
 package chess;
-import java.util.Objects;
 
 /**
  * Represents a single square position on a chess board
  */
 public class ChessPosition {
+    // Shared instances for the 64 on-board squares, indexed like Bitboards squares
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
     private final int row;
     private final int column;
 
@@ -13,6 +21,25 @@ public class ChessPosition {
         this.column = column;
     }
 
+    /**
+     * Returns the shared instance for a square instead of allocating a new one.
+     * Positions are immutable, so this is interchangeable with the constructor.
+     *
+     * @param row    1 codes for the bottom row
+     * @param column 1 codes for the left column
+     * @return the position, cached if it is on the board
+     */
+    public static ChessPosition of(int row, int column) {
+        if (row < 1 || row > 8 || column < 1 || column > 8) {
+            return new ChessPosition(row, column);
+        }
+        return SQUARES[(row - 1) * 8 + (column - 1)];
+    }
+
+    static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -40,7 +67,7 @@ public class ChessPosition {
     @Override
     public int hashCode() {
 
-        return Objects.hash(row, column);
+        return 31 * row + column;
     }
 
     @Override
@@ -0,0 +1,242 @@
+package chess;
+
+/**
+ * Forsyth-Edwards Notation for {@link ChessGame}, e.g. the start position
+ * {@value #START}.
+ * <p>
+ * The parser walks the text once by index, with no splitting, regexes or
+ * intermediate strings, so the only allocation is the game it returns.
+ * Fields may be separated by runs of spaces and the halfmove and fullmove
+ * fields may be left off, as in EPD. The en passant field is written whenever
+ * the last move was a double pawn push, whether or not a capture is possible.
+ */
+final class Fen {
+
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_CHARS = "KQRBNPkqrbnp";
+    private static final String CASTLING_CHARS = "KQkq";
+
+    private Fen() {
+    }
+
+    static ChessGame parse(CharSequence fen) {
+        ChessBoard board = new ChessBoard();
+        int i = 0;
+        int length = fen.length();
+
+        // Piece placement, from a8 to h1
+        int row = 8;
+        int column = 1;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (column != 9 || row == 1) {
+                    throw error(fen, i, "misplaced rank separator");
+                }
+                row--;
+                column = 1;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+            } else {
+                int index = PIECE_CHARS.indexOf(c);
+                if (index < 0) {
+                    throw error(fen, i, "unknown piece '" + c + "'");
+                }
+                if (column > 8) {
+                    throw error(fen, i, "rank is too long");
+                }
+                if (index % 6 == ChessPiece.PieceType.PAWN.ordinal() && (row == 1 || row == 8)) {
+                    throw error(fen, i, "pawn on the back rank");
+                }
+                board.put(Bitboards.square(row, column++), index);
+            }
+            if (column > 9) {
+                throw error(fen, i, "rank is too long");
+            }
+        }
+        if (row != 1 || column != 9) {
+            throw error(fen, i, "board does not cover 8 ranks of 8 squares");
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if (Long.bitCount(board.pieces(color, ChessPiece.PieceType.KING)) != 1) {
+                throw error(fen, 0, "expected one " + color.toString().toLowerCase() + " king");
+            }
+        }
+
+        // Side to move
+        i = skipSpaces(fen, i, true);
+        ChessGame.TeamColor turn;
+        if (fen.charAt(i) == 'w') {
+            turn = ChessGame.TeamColor.WHITE;
+        } else if (fen.charAt(i) == 'b') {
+            turn = ChessGame.TeamColor.BLACK;
+        } else {
+            throw error(fen, i, "side to move must be 'w' or 'b'");
+        }
+        i = endOfField(fen, i + 1);
+
+        // Castling rights
+        i = skipSpaces(fen, i, true);
+        int rights = 0;
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                int bit = CASTLING_CHARS.indexOf(fen.charAt(i));
+                if (bit < 0) {
+                    throw error(fen, i, "unknown castling right '" + fen.charAt(i) + "'");
+                }
+                rights |= 1 << bit;
+            }
+        }
+        i = endOfField(fen, i);
+        rights &= homeRights(board);
+
+        // En passant target, on the rank the side to move captures onto
+        i = skipSpaces(fen, i, true);
+        int enPassant = -1;
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            int epColumn = fen.charAt(i) - 'a' + 1;
+            int epRow = i + 1 < length ? fen.charAt(i + 1) - '0' : 0;
+            if (epColumn < 1 || epColumn > 8 || epRow != (turn == ChessGame.TeamColor.WHITE ? 6 : 3)) {
+                throw error(fen, i, "bad en passant square");
+            }
+            enPassant = Bitboards.square(epRow, epColumn);
+            i += 2;
+        }
+        i = endOfField(fen, i);
+
+        // Optional counters
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        i = skipSpaces(fen, i, false);
+        if (i < length) {
+            halfmoveClock = number(fen, i);
+            i = skipSpaces(fen, endOfNumber(fen, i), true);
+            fullmoveNumber = number(fen, i);
+            if (fullmoveNumber == 0) {
+                throw error(fen, i, "fullmove number starts at 1");
+            }
+            i = skipSpaces(fen, endOfNumber(fen, i), false);
+            if (i < length) {
+                throw error(fen, i, "unexpected text after the fullmove number");
+            }
+        }
+        return new ChessGame(board, turn, rights, enPassant, halfmoveClock, fullmoveNumber);
+    }
+
+    static String format(ChessGame game) {
+        StringBuilder out = new StringBuilder(90);
+        appendTo(game, out);
+        return out.toString();
+    }
+
+    static void appendTo(ChessGame game, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int column = 1; column <= 8; column++) {
+                int index = board.pieceIndexAt(Bitboards.square(row, column));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_CHARS.charAt(index));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = game.castlingRights();
+        if (rights == 0) {
+            out.append('-');
+        }
+        for (int bit = 0; bit < 4; bit++) {
+            if ((rights & (1 << bit)) != 0) {
+                out.append(CASTLING_CHARS.charAt(bit));
+            }
+        }
+
+        out.append(' ');
+        int enPassant = game.enPassantSquare();
+        if (enPassant < 0) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >> 3)));
+        }
+        out.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    // Rights whose king and rook are still on their starting squares; any others could never be used
+    private static int homeRights(ChessBoard board) {
+        int rights = 0;
+        for (int bit = 0; bit < 4; bit++) {
+            ChessGame.TeamColor color = bit < 2 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            int row = bit < 2 ? 1 : 8;
+            long king = Bitboards.bit(Bitboards.square(row, 5));
+            long rook = Bitboards.bit(Bitboards.square(row, bit % 2 == 0 ? 8 : 1));
+            if ((board.pieces(color, ChessPiece.PieceType.KING) & king) != 0
+                    && (board.pieces(color, ChessPiece.PieceType.ROOK) & rook) != 0) {
+                rights |= 1 << bit;
+            }
+        }
+        return rights;
+    }
+
+    // Index of the next non-space at or after i; when required, it must exist
+    private static int skipSpaces(CharSequence fen, int i, boolean required) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        if (required && i == fen.length()) {
+            throw error(fen, i, "missing field");
+        }
+        return i;
+    }
+
+    private static int endOfField(CharSequence fen, int i) {
+        if (i < fen.length() && fen.charAt(i) != ' ') {
+            throw error(fen, i, "unexpected '" + fen.charAt(i) + "'");
+        }
+        return i;
+    }
+
+    // A decimal number starting at i, capped at ChessGame.MAX_CLOCK
+    private static int number(CharSequence fen, int i) {
+        int end = endOfNumber(fen, i);
+        if (end == i) {
+            throw error(fen, i, "expected a number");
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            value = Math.min(value * 10 + fen.charAt(i) - '0', ChessGame.MAX_CLOCK);
+        }
+        endOfField(fen, end);
+        return value;
+    }
+
+    private static int endOfNumber(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static IllegalArgumentException error(CharSequence fen, int index, String problem) {
+        return new IllegalArgumentException("Bad FEN at character " + index + ": " + problem + " in \"" + fen + "\"");
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * Compact binary encoding of a {@link ChessGame}'s position, for storing
+ * games without reflective JSON.
+ * <p>
+ * Layout ({@value #LENGTH} bytes):
+ * <pre>
+ *   byte 0      magic ({@value #MAGIC})
+ *   byte 1      version ({@value #VERSION})
+ *   byte 2      bit 0 black to move, bits 4-7 castling rights
+ *   byte 3      en passant square + 1 (0 = none)
+ *   bytes 4-35  board: one nibble per square from a1, piece index + 1 (0 = empty),
+ *               even squares in the low nibble
+ *   bytes 36-37 halfmove clock, big-endian
+ *   bytes 38-39 fullmove number, big-endian
+ * </pre>
+ * Version 1 encodings end after the board and decode with the counters of a
+ * fresh game.
+ * Move history is not encoded, so a decoded game starts with nothing to unmake.
+ */
+public final class GameCodec {
+
+    public static final int MAGIC = 0xC6;
+    public static final int VERSION = 2;
+    public static final int LENGTH = 40;
+
+    private static final int V1_LENGTH = 36;
+    private static final int BOARD_OFFSET = 4;
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] data = new byte[LENGTH];
+        data[0] = (byte) MAGIC;
+        data[1] = VERSION;
+        data[2] = (byte) ((game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0) | game.castlingRights() << 4);
+        data[3] = (byte) (game.enPassantSquare() + 1);
+
+        ChessBoard board = game.getBoard();
+        for (ChessGame.TeamColor color : COLORS) {
+            for (ChessPiece.PieceType type : TYPES) {
+                int nibble = ChessBoard.index(color, type) + 1;
+                for (long b = board.pieces(color, type); b != 0; b &= b - 1) {
+                    int square = Long.numberOfTrailingZeros(b);
+                    data[BOARD_OFFSET + (square >> 1)] |= (byte) (nibble << ((square & 1) << 2));
+                }
+            }
+        }
+        putShort(data, V1_LENGTH, game.getHalfmoveClock());
+        putShort(data, V1_LENGTH + 2, Math.min(game.getFullmoveNumber(), ChessGame.MAX_CLOCK));
+        return data;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code data} is not a game in this format and version
+     */
+    public static ChessGame decode(byte[] data) {
+        if (data.length < 2 || (data[0] & 0xFF) != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded game");
+        }
+        int version = data[1];
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version " + version);
+        }
+        if (data.length != (version == 1 ? V1_LENGTH : LENGTH)) {
+            throw new IllegalArgumentException("Encoded game has the wrong length for version " + version);
+        }
+        int flags = data[2] & 0xFF;
+        int enPassant = (data[3] & 0xFF) - 1;
+        if ((flags & 0x0E) != 0) {
+            throw new IllegalArgumentException("Reserved state bits are set");
+        }
+        if (enPassant != -1 && (enPassant < 16 || enPassant >= 24) && (enPassant < 40 || enPassant >= 48)) {
+            throw new IllegalArgumentException("Bad en passant square " + enPassant);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int nibble = (data[BOARD_OFFSET + (square >> 1)] >> ((square & 1) << 2)) & 0xF;
+            if (nibble > 12) {
+                throw new IllegalArgumentException("Bad piece " + nibble + " on square " + square);
+            }
+            if (nibble != 0) {
+                board.put(square, nibble - 1);
+            }
+        }
+        int halfmoveClock = version == 1 ? 0 : getShort(data, V1_LENGTH);
+        int fullmoveNumber = version == 1 ? 1 : Math.max(1, getShort(data, V1_LENGTH + 2));
+        return new ChessGame(board, (flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE,
+                flags >>> 4, enPassant, halfmoveClock, fullmoveNumber);
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    private static void putShort(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 8);
+        data[offset + 1] = (byte) value;
+    }
+
+    private static int getShort(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | data[offset + 1] & 0xFF;
+    }
+}
@@ -0,0 +1,117 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move generation and search can work on
+ * primitive arrays instead of {@link ChessMove} objects.
+ * <pre>
+ *  bits  0-5   from square (see {@link Bitboards})
+ *  bits  6-11  to square
+ *  bits 12-14  promotion piece type ordinal + 1, or 0 for none
+ *  bit  15     capture (including en passant)
+ *  bit  16     en passant capture
+ *  bit  17     castling
+ *  bit  18     pawn double push
+ * </pre>
+ * The flags are hints filled in by the move generator; playing a move only
+ * needs the squares and promotion, so a move encoded from a {@link ChessMove}
+ * without flags can still be made.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLE = 1 << 17;
+    public static final int DOUBLE_PUSH = 1 << 18;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {}
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int move = from | (to << 6) | flags;
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int p = (move >>> 12) & 7;
+        return p == 0 ? null : TYPES[p - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & (7 << 12)) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    /**
+     * @return the move with its flags stripped, so two encodings of the same move compare equal
+     */
+    public static int squaresAndPromotion(int move) {
+        return move & 0x7FFF;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.ofSquare(from(move)), ChessPosition.ofSquare(to(move)), promotion(move));
+    }
+
+    /**
+     * Encodes a move without generator flags.
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. {@code e2e4} or {@code e7e8q}
+     */
+    public static String toString(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            sb.append(switch (promotion) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                default -> 'n';
+            });
+        }
+        return sb.toString();
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+}
@@ -0,0 +1,237 @@
+package chess;
+
+/**
+ * Generates strictly legal moves straight from the bitboards.
+ * <p>
+ * The pieces giving check and the pieces pinned to their own king are worked
+ * out once per position. In double check only king moves are produced; in
+ * single check every other move must capture the checker or block its ray;
+ * pinned pieces may only slide along their pin line. That leaves king steps
+ * onto attacked squares and en passant captures that expose the king along a
+ * rank as the only cases that need an extra attack test.
+ */
+final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {}
+
+    /**
+     * Appends every legal move for {@code us} whose start square is in {@code fromMask} to {@code out}
+     * as packed {@link Move} ints.
+     */
+    static void generate(ChessGame game, ChessGame.TeamColor us, long fromMask, MoveList out) {
+        generate(game, us, fromMask, false, out);
+    }
+
+    /**
+     * @param capturesOnly only emit captures (en passant included) and promotions, for quiescence search
+     */
+    static void generate(ChessGame game, ChessGame.TeamColor us, long fromMask, boolean capturesOnly,
+                         MoveList out) {
+        ChessBoard board = game.getBoard();
+        int king = board.kingSquare(us);
+        if (king < 0) {
+            return;
+        }
+
+        ChessGame.TeamColor them = us == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long own = board.occupancy(us);
+        long enemy = board.occupancy(them);
+        long occupied = own | enemy;
+
+        long checkers = board.attackersTo(king, them, occupied);
+
+        // King steps: test each destination with the king lifted off the board so it cannot hide behind itself
+        if ((fromMask & Bitboards.bit(king)) != 0) {
+            long targets = Bitboards.kingAttacks(king) & (capturesOnly ? enemy : ~own);
+            long withoutKing = occupied ^ Bitboards.bit(king);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (board.attackersTo(to, them, withoutKing) == 0) {
+                    out.add(Move.of(king, to, null, (enemy & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+                }
+            }
+            if (checkers == 0 && !capturesOnly) {
+                addCastling(game, board, us, them, king, occupied, out);
+            }
+        }
+
+        // Double check: only the king can move
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        // Squares a non-king move must land on: anywhere, or on the checker / its ray
+        long evasion = ~own;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            evasion = checkers | Bitboards.between(king, checker);
+        }
+        // Pawn pushes filter promotions themselves; everything else must land on an enemy piece
+        long pieceTargets = capturesOnly ? evasion & enemy : evasion;
+
+        long pinned = pinnedPieces(board, king, them, own, enemy, occupied);
+        fromMask &= own & ~Bitboards.bit(king);
+
+        long queens = board.pieces(us, ChessPiece.PieceType.QUEEN);
+        addPieceMoves(board.pieces(us, ChessPiece.PieceType.KNIGHT) & ~pinned & fromMask,
+                ChessPiece.PieceType.KNIGHT, king, pinned, enemy, occupied, pieceTargets, out);
+        addPieceMoves((board.pieces(us, ChessPiece.PieceType.BISHOP) | queens) & fromMask,
+                ChessPiece.PieceType.BISHOP, king, pinned, enemy, occupied, pieceTargets, out);
+        addPieceMoves((board.pieces(us, ChessPiece.PieceType.ROOK) | queens) & fromMask,
+                ChessPiece.PieceType.ROOK, king, pinned, enemy, occupied, pieceTargets, out);
+
+        addPawnMoves(game, board, us, them, king, board.pieces(us, ChessPiece.PieceType.PAWN) & fromMask,
+                pinned, enemy, occupied, evasion, checkers, capturesOnly, out);
+    }
+
+    /**
+     * @return our pieces that are the only blocker between an enemy slider and our king
+     */
+    static long pinnedPieces(ChessBoard board, int king, ChessGame.TeamColor them, long own, long enemy,
+                             long occupied) {
+        long queens = board.pieces(them, ChessPiece.PieceType.QUEEN);
+        long snipers = (Bitboards.rookAttacks(king, enemy) & (board.pieces(them, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, enemy) & (board.pieces(them, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Bitboards.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    // Knights, and the rook/bishop halves of queens (a queen appears in both passes)
+    private static void addPieceMoves(long pieces, ChessPiece.PieceType kind, int king, long pinned, long enemy,
+                                      long occupied, long evasion, MoveList out) {
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long targets = switch (kind) {
+                case KNIGHT -> Bitboards.knightAttacks(from);
+                case BISHOP -> Bitboards.bishopAttacks(from, occupied);
+                default -> Bitboards.rookAttacks(from, occupied);
+            };
+            targets &= evasion;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                targets &= Bitboards.line(king, from);
+            }
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                out.add(Move.of(from, to, null, (enemy & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+    }
+
+    private static void addPawnMoves(ChessGame game, ChessBoard board, ChessGame.TeamColor us,
+                                     ChessGame.TeamColor them, int king, long pawns, long pinned, long enemy,
+                                     long occupied, long evasion, long checkers, boolean capturesOnly,
+                                     MoveList out) {
+        boolean white = us == ChessGame.TeamColor.WHITE;
+        int forward = white ? 8 : -8;
+        long startRank = white ? Bitboards.RANK_1 << 8 : Bitboards.RANK_8 >>> 8;
+        long promotionRank = white ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        int epSquare = game.enPassantSquare();
+        // The en passant square only belongs to the side that can capture onto it
+        if (epSquare >= 0 && Bitboards.rowOf(epSquare) != (white ? 6 : 3)) {
+            epSquare = -1;
+        }
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = evasion;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                allowed &= Bitboards.line(king, from);
+            }
+
+            int one = from + forward;
+            if ((occupied & Bitboards.bit(one)) == 0
+                    && (!capturesOnly || (promotionRank & Bitboards.bit(one)) != 0)) {
+                if ((allowed & Bitboards.bit(one)) != 0) {
+                    addPawn(out, from, one, 0);
+                }
+                int two = one + forward;
+                if (!capturesOnly && (startRank & Bitboards.bit(from)) != 0 && (occupied & Bitboards.bit(two)) == 0
+                        && (allowed & Bitboards.bit(two)) != 0) {
+                    out.add(Move.of(from, two, null, Move.DOUBLE_PUSH));
+                }
+            }
+
+            long captures = Bitboards.pawnAttacks(us, from) & enemy & allowed;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                addPawn(out, from, to, Move.CAPTURE);
+            }
+
+            if (epSquare >= 0 && (Bitboards.pawnAttacks(us, from) & Bitboards.bit(epSquare)) != 0
+                    && enPassantIsLegal(board, us, them, king, from, epSquare, occupied, checkers)) {
+                out.add(Move.of(from, epSquare, null, Move.CAPTURE | Move.EN_PASSANT));
+            }
+        }
+    }
+
+    // En passant removes two pawns from one rank at once, so just recheck the king with the final occupancy
+    private static boolean enPassantIsLegal(ChessBoard board, ChessGame.TeamColor us, ChessGame.TeamColor them,
+                                            int king, int from, int to, long occupied, long checkers) {
+        int captured = us == ChessGame.TeamColor.WHITE ? to - 8 : to + 8;
+        long after = (occupied ^ Bitboards.bit(from) ^ Bitboards.bit(captured)) | Bitboards.bit(to);
+        long queens = board.pieces(them, ChessPiece.PieceType.QUEEN);
+        if ((Bitboards.rookAttacks(king, after) & (board.pieces(them, ChessPiece.PieceType.ROOK) | queens)) != 0) {
+            return false;
+        }
+        if ((Bitboards.bishopAttacks(king, after) & (board.pieces(them, ChessPiece.PieceType.BISHOP) | queens)) != 0) {
+            return false;
+        }
+        // Any knight or pawn check must be the pawn being captured
+        long contactCheckers = checkers & (board.pieces(them, ChessPiece.PieceType.KNIGHT)
+                | board.pieces(them, ChessPiece.PieceType.PAWN));
+        return (contactCheckers & ~Bitboards.bit(captured)) == 0;
+    }
+
+    private static void addCastling(ChessGame game, ChessBoard board, ChessGame.TeamColor us,
+                                    ChessGame.TeamColor them, int king, long occupied, MoveList out) {
+        int row = us == ChessGame.TeamColor.WHITE ? 1 : 8;
+        if (king != Bitboards.square(row, 5)) {
+            return;
+        }
+        long rooks = board.pieces(us, ChessPiece.PieceType.ROOK);
+        long attacked = board.attacks(them);
+
+        int kingsideRook = Bitboards.square(row, 8);
+        if (game.canCastle(us, true) && (rooks & Bitboards.bit(kingsideRook)) != 0
+                && (Bitboards.between(king, kingsideRook) & occupied) == 0
+                && (attacked & (Bitboards.bit(king + 1) | Bitboards.bit(king + 2))) == 0) {
+            out.add(Move.of(king, king + 2, null, Move.CASTLE));
+        }
+
+        int queensideRook = Bitboards.square(row, 1);
+        if (game.canCastle(us, false) && (rooks & Bitboards.bit(queensideRook)) != 0
+                && (Bitboards.between(king, queensideRook) & occupied) == 0
+                && (attacked & (Bitboards.bit(king - 1) | Bitboards.bit(king - 2))) == 0) {
+            out.add(Move.of(king, king - 2, null, Move.CASTLE));
+        }
+    }
+
+    private static void addPawn(MoveList out, int from, int to, int flags) {
+        int row = Bitboards.rowOf(to);
+        if (row == 1 || row == 8) {
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                out.add(Move.of(from, to, promotion, flags));
+            }
+        } else {
+            out.add(Move.of(from, to, null, flags));
+        }
+    }
+}
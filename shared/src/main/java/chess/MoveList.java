@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable, growable buffer of packed {@link Move} ints. Callers keep one
+ * list per ply and {@link #clear()} it, so generating moves allocates nothing.
+ */
+public final class MoveList {
+
+    // No legal chess position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public void swap(int i, int j) {
+        int t = moves[i];
+        moves[i] = moves[j];
+        moves[j] = t;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the index of a move with the same squares and promotion, or -1
+     */
+    public int indexOf(int move) {
+        int key = Move.squaresAndPromotion(move);
+        for (int i = 0; i < size; i++) {
+            if (Move.squaresAndPromotion(moves[i]) == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public List<ChessMove> toChessMoves() {
+        List<ChessMove> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(Move.toChessMove(moves[i]));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,149 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Performance test (perft) for the move generator: counts the leaf nodes of the
+ * legal move tree to a fixed depth. The counts for well-known positions are
+ * published, so any disagreement points at a move generation bug, and the
+ * elapsed time gives raw generator throughput.
+ * <p>
+ * Run from the command line as {@code Perft <depth> [threads]} to divide the
+ * starting position and print nodes per second.
+ */
+public final class Perft {
+
+    /**
+     * Leaf count and wall time of one perft run.
+     */
+    public record Result(long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    private Perft() {}
+
+    /**
+     * @return the number of leaf nodes {@code depth} plies below the current position
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList[] lists = new MoveList[depth];
+        for (int ply = 0; ply < depth; ply++) {
+            lists[ply] = new MoveList();
+        }
+        return perft(game, depth, lists);
+    }
+
+    // One move list per remaining depth, reused across siblings so the tree walk allocates nothing
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth - 1];
+        int count = game.generateLegalMoves(moves);
+        if (depth == 1) {
+            return count;  // bulk count: the generator only emits legal moves
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMoveUnchecked(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Runs perft and reports the elapsed time, splitting the root moves across
+     * {@code threads} worker threads (each with its own copy of the game).
+     */
+    public static Result run(ChessGame game, int depth, int threads) {
+        long start = System.nanoTime();
+        long nodes = threads <= 1 || depth < 2
+                ? perft(new ChessGame(game), depth)
+                : sum(divide(game, depth, threads));
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the leaf count below each root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        return divide(game, depth, 1);
+    }
+
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth, int threads) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide needs a depth of at least 1");
+        }
+        List<ChessMove> roots = new ArrayList<>(game.legalMoves());
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+
+        if (threads <= 1) {
+            ChessGame copy = new ChessGame(game);
+            for (ChessMove move : roots) {
+                copy.makeMoveUnchecked(move);
+                counts.put(move, perft(copy, depth - 1));
+                copy.unmakeMove();
+            }
+            return counts;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (ChessMove move : roots) {
+                ChessGame copy = new ChessGame(game);
+                futures.add(pool.submit(() -> {
+                    copy.makeMoveUnchecked(move);
+                    return perft(copy, depth - 1);
+                }));
+            }
+            for (int i = 0; i < roots.size(); i++) {
+                counts.put(roots.get(i), futures.get(i).get());
+            }
+            return counts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long sum(Map<ChessMove, Long> counts) {
+        long total = 0;
+        for (long n : counts.values()) {
+            total += n;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ChessGame game = new ChessGame();
+
+        long start = System.nanoTime();
+        Map<ChessMove, Long> counts = divide(game, depth, threads);
+        long nanos = System.nanoTime() - start;
+        counts.forEach((move, nodes) -> System.out.println(move + ": " + nodes));
+
+        Result single = run(game, depth, 1);
+        Result total = new Result(sum(counts), nanos);
+        System.out.printf("Depth %d: %d nodes%n", depth, total.nodes());
+        System.out.printf("1 thread:  %,d nodes/s%n", single.nodesPerSecond());
+        System.out.printf("%d threads: %,d nodes/s (%.2fx)%n", threads, total.nodesPerSecond(),
+                (double) single.nanos() / total.nanos());
+    }
+}
@@ -0,0 +1,55 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist position hashing. A position's key is the XOR of the
+ * keys of every piece on its square, the side to move, the castling rights and
+ * the file of a capturable en passant square, so a move updates it with a few
+ * XORs instead of rehashing the board.
+ * <p>
+ * The keys come from a fixed seed, so a position has the same key on every JVM.
+ */
+final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x240C4E55L);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int sq = 0; sq < 64; sq++) {
+                keys[sq] = random.nextLong();
+            }
+        }
+        // Each right gets its own key; combinations are the XOR of their parts
+        long[] single = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights < 16; rights++) {
+            for (int bit = 0; bit < 4; bit++) {
+                if ((rights & (1 << bit)) != 0) {
+                    CASTLING[rights] ^= single[bit];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    static long piece(int index, int square) {
+        return PIECE_SQUARE[index][square];
+    }
+
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    static long enPassant(int square) {
+        return EN_PASSANT_FILE[square & 7];
+    }
+}
@@ -0,0 +1,212 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.eval.Evaluator;
+import chess.eval.PieceSquareEvaluator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A clocked computer player for one game, which can ponder: while the
+ * opponent thinks, it searches the position after the reply it expects.
+ * <p>
+ * If the opponent then plays that reply (a ponder hit), the running search is
+ * given a real time budget and carries on, so the time spent pondering comes
+ * for free. Otherwise (a miss) it is stopped, which takes a few microseconds,
+ * and a normal search starts. Either way the transposition table the player
+ * keeps between moves is already warm from the work done.
+ * <p>
+ * Methods are synchronized: one game's moves arrive one at a time anyway, and
+ * a ponder search runs on the given executor only while no other search does.
+ */
+public final class ComputerPlayer {
+
+    private final TranspositionTable table;
+    private final Search search;
+    private final TimeManager timeManager;
+
+    private Future<SearchResult> ponder;
+    // Read by stop() without the lock
+    private volatile AtomicBoolean ponderStop;
+    private long ponderKey;
+    private long ponderStarted;
+    private volatile long ponderFinished;
+
+    private long ponderNanos;
+    private int ponderHits;
+    private int ponderMisses;
+
+    public ComputerPlayer(int tableMegabytes) {
+        this(new TranspositionTable(tableMegabytes), new PieceSquareEvaluator(), TimeManager.DEFAULT);
+    }
+
+    /**
+     * @param evaluator used only by this player's search; attached to its private board
+     */
+    public ComputerPlayer(TranspositionTable table, Evaluator evaluator, TimeManager timeManager) {
+        this.table = table;
+        this.search = new Search(table, evaluator);
+        this.timeManager = timeManager;
+    }
+
+    /**
+     * Chooses a move for the side to move in {@code game}, within the time
+     * {@link TimeManager} allows on {@code clock}. Blocks until done; the game
+     * is not modified.
+     */
+    public synchronized SearchResult think(ChessGame game, GameClock clock) {
+        SearchLimits limits = timeManager.allocate(clock);
+        if (ponder != null) {
+            if (ponderKey == game.getZobristKey()) {
+                ponderHits++;
+                // A search that already ran out of quota is not resumed; the warm table makes redoing it quick
+                if (!ponder.isDone()) {
+                    // The clock starts now and the search keeps what it has done
+                    search.setLimits(limits);
+                    SearchResult result = finishPonder();
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            } else {
+                ponderMisses++;
+            }
+            cancelPonder();
+        }
+        return search.search(game, limits);
+    }
+
+    /**
+     * Starts pondering on {@code executor}: plays the reply {@code played}
+     * expects in {@code game} (where the opponent is to move) and searches the
+     * resulting position within {@code quota} until the next {@link #think}
+     * or {@link #cancelPonder()}.
+     *
+     * @return false if there is no expected reply or the executor has no room for the search
+     */
+    public synchronized boolean ponder(ChessGame game, SearchResult played, SearchLimits quota, Executor executor) {
+        cancelPonder();
+        int[] pv = played.pv();
+        if (pv.length < 2) {
+            return false;
+        }
+        ChessGame expected = new ChessGame(game);
+        // The reply came from a search of the position before our move, so check it is legal here
+        MoveList replies = new MoveList();
+        expected.generateLegalMoves(replies);
+        int index = replies.indexOf(pv[1]);
+        if (index < 0) {
+            return false;
+        }
+        expected.makeMoveUnchecked(replies.get(index));
+
+        AtomicBoolean stop = new AtomicBoolean();
+        CompletableFuture<SearchResult> task = new CompletableFuture<>();
+        search.setLimits(quota);
+        table.newSearch();
+        ponderStarted = System.nanoTime();
+        ponderFinished = 0;
+        try {
+            executor.execute(() -> {
+                SearchResult result;
+                try {
+                    result = search.search(expected, quota, 0, stop, true);
+                } catch (Throwable e) {
+                    ponderFinished = System.nanoTime();
+                    task.completeExceptionally(e);
+                    return;
+                }
+                // Before completing, so a later ponder's timing is never overwritten
+                ponderFinished = System.nanoTime();
+                task.complete(result);
+            });
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        ponder = task;
+        ponderStop = stop;
+        ponderKey = expected.getZobristKey();
+        return true;
+    }
+
+    /**
+     * Stops pondering, if it is, and waits for the search to wind down.
+     */
+    public synchronized void cancelPonder() {
+        if (ponder != null) {
+            ponderStop.set(true);
+            finishPonder();
+        }
+    }
+
+    /**
+     * Asks the running search, thinking or pondering, to return as soon as
+     * possible. Unlike the other methods it does not wait for the lock, so it
+     * can be called from another thread while {@link #think} is running.
+     */
+    public void stop() {
+        search.stop();
+        AtomicBoolean pondering = ponderStop;
+        if (pondering != null) {
+            pondering.set(true);
+        }
+    }
+
+    public synchronized boolean isPondering() {
+        return ponder != null && !ponder.isDone();
+    }
+
+    /**
+     * @return wall time spent pondering so far, up to each hit or cancellation
+     */
+    public synchronized long ponderNanos() {
+        return ponderNanos + (ponder != null ? pondered() : 0);
+    }
+
+    public synchronized int ponderHits() {
+        return ponderHits;
+    }
+
+    public synchronized int ponderMisses() {
+        return ponderMisses;
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    // Books the time pondered up to now, then waits for the search; null if it failed or was interrupted.
+    // Always waits for the search to end, since the next one runs on the same Search.
+    private SearchResult finishPonder() {
+        ponderNanos += pondered();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    SearchResult result = ponder.get();
+                    return interrupted ? null : result;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    ponderStop.set(true);
+                } catch (ExecutionException e) {
+                    return null;
+                }
+            }
+        } finally {
+            ponder = null;
+            ponderStop = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long pondered() {
+        long finished = ponderFinished;
+        return (finished != 0 ? finished : System.nanoTime()) - ponderStarted;
+    }
+}
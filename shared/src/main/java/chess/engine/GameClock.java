@@ -0,0 +1,37 @@
+package chess.engine;
+
+/**
+ * One player's clock at the moment they are to move.
+ *
+ * @param remainingMillis time left on the clock
+ * @param incrementMillis time added after each move
+ * @param movesToGo       moves left until the next time control, or 0 if the rest of the game must fit
+ */
+public record GameClock(long remainingMillis, long incrementMillis, int movesToGo) {
+
+    public GameClock {
+        if (remainingMillis < 0 || incrementMillis < 0 || movesToGo < 0) {
+            throw new IllegalArgumentException("Clock values cannot be negative");
+        }
+    }
+
+    public static GameClock suddenDeath(long remainingMillis) {
+        return new GameClock(remainingMillis, 0, 0);
+    }
+
+    public static GameClock fischer(long remainingMillis, long incrementMillis) {
+        return new GameClock(remainingMillis, incrementMillis, 0);
+    }
+
+    /**
+     * @return the clock after a move that took {@code elapsedMillis}, increment added; never below zero
+     */
+    public GameClock afterMove(long elapsedMillis) {
+        return new GameClock(Math.max(0, remainingMillis - elapsedMillis) + incrementMillis, incrementMillis,
+                movesToGo > 0 ? movesToGo - 1 : 0);
+    }
+
+    public boolean isFlagged() {
+        return remainingMillis == 0;
+    }
+}
@@ -0,0 +1,156 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+/**
+ * Orders the moves at each ply of a search so the ones most likely to cause a
+ * cutoff are searched first:
+ * <ol>
+ *     <li>the hash move (best move stored for this position, or the PV move),</li>
+ *     <li>captures that do not lose material by {@link StaticExchange}, most
+ *     valuable victim first and least valuable attacker breaking ties (MVV-LVA),
+ *     then queen promotions,</li>
+ *     <li>the two killer moves for this ply: quiet moves that recently caused a
+ *     cutoff in a sibling position,</li>
+ *     <li>other quiet moves by butterfly history, a from/to table of how often
+ *     and how deep each move has cut off before,</li>
+ *     <li>captures that lose material.</li>
+ * </ol>
+ * Scores are kept in one array per ply next to the {@link MoveList}, and moves
+ * are handed out one at a time with {@link #next(MoveList, int, int)}, which
+ * only sorts as far as the search actually gets. All tables are primitive
+ * arrays allocated once, so ordering allocates nothing per node. Not
+ * thread-safe: each search thread needs its own orderer.
+ */
+public final class MoveOrderer {
+
+    private static final int HASH_MOVE = Integer.MAX_VALUE;
+    private static final int GOOD_CAPTURE = 2_000_000;
+    private static final int FIRST_KILLER = 1_000_001;
+    private static final int SECOND_KILLER = 1_000_000;
+    private static final int BAD_CAPTURE = -1_000_000;
+    // History scores stay below the killers; hitting the cap halves the whole table
+    private static final int HISTORY_MAX = 500_000;
+
+    // Order of value for MVV-LVA, indexed by PieceType ordinal: KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN
+    private static final int[] RANK = {6, 5, 4, 3, 2, 1};
+
+    // Grown to fit on first use at each ply, since most searches never reach the deep ones
+    private final int[][] scores = new int[Search.MAX_PLY][0];
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    // [color][from][to] flattened
+    private final int[] history = new int[2 * 64 * 64];
+    private final StaticExchange exchange = new StaticExchange();
+
+    /**
+     * Forgets the killers and fades the history before a new search, so old
+     * results still help but new ones quickly take over.
+     */
+    public void newSearch() {
+        for (int[] pair : killers) {
+            pair[0] = Move.NONE;
+            pair[1] = Move.NONE;
+        }
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 2;
+        }
+    }
+
+    /**
+     * Scores every move in {@code moves}, which must have been generated for the
+     * position on {@code board} with {@code color} to move.
+     *
+     * @param hashMove move to search first, or {@link Move#NONE}
+     */
+    public void score(ChessBoard board, MoveList moves, int ply, int hashMove, int color) {
+        if (scores[ply].length < moves.size()) {
+            scores[ply] = new int[moves.size()];
+        }
+        int[] score = scores[ply];
+        int hashKey = Move.squaresAndPromotion(hashMove);
+        int killer0 = killers[ply][0];
+        int killer1 = killers[ply][1];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int key = Move.squaresAndPromotion(move);
+            if (hashMove != Move.NONE && key == hashKey) {
+                score[i] = HASH_MOVE;
+            } else if (Move.isCapture(move)) {
+                int mvvLva = mvvLva(board, move);
+                score[i] = exchange.evaluate(board, move) >= 0 ? GOOD_CAPTURE + mvvLva : BAD_CAPTURE + mvvLva;
+            } else if (Move.promotion(move) == ChessPiece.PieceType.QUEEN) {
+                score[i] = GOOD_CAPTURE;
+            } else if (key == killer0) {
+                score[i] = FIRST_KILLER;
+            } else if (key == killer1) {
+                score[i] = SECOND_KILLER;
+            } else {
+                score[i] = history[historyIndex(color, move)];
+            }
+        }
+    }
+
+    /**
+     * Moves the best-scored move at or after {@code index} to {@code index} and returns it.
+     */
+    public int next(MoveList moves, int ply, int index) {
+        int[] score = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (score[i] > score[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int t = score[index];
+            score[index] = score[best];
+            score[best] = t;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * @return true if the move handed out at {@code index} is a capture that loses material
+     */
+    public boolean isLosingCapture(int ply, int index) {
+        // History scores are never negative, so only losing captures score below zero
+        return scores[ply][index] < 0;
+    }
+
+    /**
+     * Records that {@code move} caused a beta cutoff. Quiet moves become the
+     * first killer for the ply and earn history in proportion to depth squared.
+     */
+    public void recordCutoff(int move, int ply, int depth, int color) {
+        if (Move.isCapture(move) || Move.isPromotion(move)) {
+            return;
+        }
+        int key = Move.squaresAndPromotion(move);
+        if (killers[ply][0] != key) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = key;
+        }
+        int index = historyIndex(color, move);
+        history[index] += depth * depth;
+        if (history[index] > HISTORY_MAX) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    private static int mvvLva(ChessBoard board, int move) {
+        ChessPiece victim = Move.isEnPassant(move) ? null : board.pieceAt(Move.to(move));
+        int victimRank = victim == null ? RANK[ChessPiece.PieceType.PAWN.ordinal()] : RANK[victim.getPieceType().ordinal()];
+        int attackerRank = RANK[board.pieceAt(Move.from(move)).getPieceType().ordinal()];
+        return victimRank * 8 - attackerRank;
+    }
+
+    private static int historyIndex(int color, int move) {
+        return (color << 12) | (Move.from(move) << 6) | Move.to(move);
+    }
+}
@@ -0,0 +1,164 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.eval.Evaluator;
+import chess.eval.PieceSquareEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Multi-threaded search using Lazy SMP: every thread searches the same root
+ * position independently, and they cooperate only through one shared
+ * {@link TranspositionTable}. Odd-numbered helpers search one ply deeper than
+ * the main thread, so the threads spread over neighbouring depths and fill the
+ * table with results the others can reuse.
+ * <p>
+ * The calling thread runs the main search under the given limits. When it
+ * finishes, the helpers are stopped and the deepest completed result wins.
+ * Helper threads are created once and reused; call {@link #close()} to release
+ * them. One {@code ParallelSearch} runs one search at a time.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    public ParallelSearch(int threads, int tableMegabytes) {
+        this(threads, new TranspositionTable(tableMegabytes));
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        this(threads, table, PieceSquareEvaluator::new);
+    }
+
+    /**
+     * @param evaluators creates one evaluator per thread
+     */
+    public ParallelSearch(int threads, TranspositionTable table, Supplier<? extends Evaluator> evaluators) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallel search needs at least one thread");
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table, evaluators.get());
+        }
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int threads() {
+        return searches.length;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    /**
+     * Searches {@code position} on every thread until the main thread reaches one
+     * of {@code limits} or {@link #stop()} is called.
+     *
+     * @return the deepest completed result, with nodes summed over all threads
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        AtomicBoolean stop = new AtomicBoolean();
+        stopSignal = stop;
+        long start = System.nanoTime();
+        // One generation for the whole search, or the threads would age each other's entries
+        table.newSearch();
+
+        // Helpers ignore the node budget and soft limit; they run until the main thread is done
+        SearchLimits helperLimits = limits.withNodes(0).withSoftMillis(0);
+        List<Future<SearchResult>> futures = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            int skew = i % 2;
+            futures.add(helpers.submit(() -> helper.search(position, helperLimits, skew, stop)));
+        }
+
+        SearchResult best;
+        try {
+            best = searches[0].search(position, limits, 0, stop);
+        } finally {
+            stop.set(true);
+        }
+
+        long nodes = best.nodes();
+        try {
+            for (Future<SearchResult> future : futures) {
+                SearchResult result = future.get();
+                nodes += result.nodes();
+                if (result.depth() > best.depth()) {
+                    best = result;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes,
+                System.nanoTime() - start, best.pv());
+    }
+
+    /**
+     * Searches for as long as {@link TimeManager#DEFAULT} allows on {@code clock}.
+     */
+    public SearchResult search(ChessGame position, GameClock clock) {
+        return search(position, TimeManager.DEFAULT.allocate(clock));
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. Safe to call from another thread.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Searches the starting position to a fixed depth with 1, 2, 4, ... up to
+     * {@code threads} threads and prints nodes per second and time-to-depth
+     * speedup over one thread. Run as {@code ParallelSearch <depth> [threads] [tableMB]}.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        long baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads == maxThreads ? threads + 1
+                : Math.min(threads * 2, maxThreads)) {
+            try (ParallelSearch search = new ParallelSearch(threads, megabytes)) {
+                SearchResult result = search.search(new ChessGame(), SearchLimits.depth(depth));
+                if (threads == 1) {
+                    baseline = result.nanos();
+                }
+                System.out.printf("%2d threads: %,d nodes/s, %d ms, speedup %.2fx  %s%n", threads,
+                        result.nodesPerSecond(), result.nanos() / 1_000_000,
+                        (double) baseline / result.nanos(), result);
+            }
+        }
+    }
+}
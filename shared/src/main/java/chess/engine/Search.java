@@ -0,0 +1,432 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+import chess.eval.Evaluator;
+import chess.eval.PieceSquareEvaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterative-deepening principal variation search (alpha-beta with null
+ * windows after the first move) over a {@link ChessGame}.
+ * <p>
+ * Each depth is searched with the previous iteration's principal variation
+ * tried first. At the horizon a quiescence search keeps playing captures until
+ * the position is quiet, skipping captures that {@link StaticExchange} says
+ * lose material, so a score is never taken in the middle of an exchange. The
+ * result of the last completed iteration is returned
+ * when a limit runs out. Moves are made and unmade in place on a private copy
+ * of the position using packed {@link Move} ints and one {@link MoveList} per
+ * ply, so the search itself allocates nothing per node.
+ * <p>
+ * Results are cached in a {@link TranspositionTable}, which may be shared by
+ * several searches. A {@code Search} keeps its buffers between calls and is
+ * meant to be reused, but it is not thread-safe: give each thread its own
+ * instance.
+ */
+public final class Search {
+
+    /** Score of delivering mate at the root; mate in n plies scores {@code MATE - n}. */
+    public static final int MATE = 32000;
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = MATE + 1;
+    // Limits are checked once every this many nodes (must be a power of two minus one)
+    private static final int CHECK_INTERVAL = 1023;
+    private static final int DEFAULT_TABLE_MB = 16;
+    // Enough for most positions; a list grows on the rare one with more moves
+    private static final int PLY_MOVES = 64;
+
+    private final MoveList[] moves = new MoveList[MAX_PLY];
+    // Triangular PV table: row p holds the best line found from ply p
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final MoveOrderer orderer = new MoveOrderer();
+    // Root moves already given to better lines in a multi-PV iteration
+    private final MoveList excludedRoot = new MoveList();
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+
+    private ChessGame game;
+    private int[] previousPv = new int[0];
+    private boolean followPv;
+    private long nodes;
+    // Written by another thread on a ponder hit, so volatile; read once every CHECK_INTERVAL nodes
+    private volatile long nodeLimit;
+    private volatile long deadline;
+    private volatile long softDeadline;
+    private boolean canAbort;
+    private boolean aborted;
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param table transposition table to read and fill; safe to share with other searches
+     */
+    public Search(TranspositionTable table) {
+        this(table, new PieceSquareEvaluator());
+    }
+
+    /**
+     * @param evaluator scores the leaves; attached to the search's private board while it runs
+     */
+    public Search(TranspositionTable table, Evaluator evaluator) {
+        this.table = table;
+        this.evaluator = evaluator;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moves[ply] = new MoveList(PLY_MOVES);
+        }
+    }
+
+    /**
+     * Searches {@code position} until one of {@code limits} is reached or
+     * {@link #stop()} is called. The position passed in is not modified.
+     *
+     * @return the best move, score and principal variation of the deepest completed iteration
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        table.newSearch();
+        return search(position, limits, 0, new AtomicBoolean());
+    }
+
+    /**
+     * Searches for as long as {@link TimeManager#DEFAULT} allows on {@code clock}.
+     * A move with no alternative is returned after the first iteration.
+     */
+    public SearchResult search(ChessGame position, GameClock clock) {
+        return search(position, TimeManager.DEFAULT.allocate(clock));
+    }
+
+    /**
+     * Leaves the table's generation alone; whoever starts the root search
+     * advances it once, however many threads search that root.
+     *
+     * @param depthSkew extra plies added to every iteration, so parallel helpers spread over different depths
+     * @param stop      shared flag that ends the search when set
+     */
+    SearchResult search(ChessGame position, SearchLimits limits, int depthSkew, AtomicBoolean stop) {
+        return search(position, limits, depthSkew, stop, false);
+    }
+
+    /**
+     * @param ponder keep the node and time limits last given to {@link #setLimits} instead of taking them
+     *               from {@code limits}, so they can be replaced while the search runs
+     */
+    SearchResult search(ChessGame position, SearchLimits limits, int depthSkew, AtomicBoolean stop, boolean ponder) {
+        long start = begin(position, limits, stop, ponder);
+        boolean forced = game.generateLegalMoves(moves[0]) == 1;
+        int maxDepth = maxDepth(limits);
+
+        SearchResult result = null;
+        for (int iteration = 1; iteration <= maxDepth; iteration++) {
+            int depth = Math.min(iteration + depthSkew, maxDepth);
+            // The first iteration always completes so there is a move to return
+            canAbort = iteration > 1;
+            followPv = true;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            previousPv = Arrays.copyOf(pvTable[0], pvLength[0]);
+            int best = previousPv.length > 0 ? previousPv[0] : Move.NONE;
+            result = new SearchResult(best, score, depth, nodes, System.nanoTime() - start, previousPv);
+            // No legal moves, or a forced mate already inside the horizon: searching deeper changes nothing
+            if (best == Move.NONE || MATE - Math.abs(score) <= depth || depth == maxDepth) {
+                break;
+            }
+            // With a clock running there is no point thinking about a forced move, and
+            // past the soft limit the next iteration would most likely be cut off anyway
+            long soft = softDeadline;
+            if (soft != 0 && (forced || System.nanoTime() - soft >= 0)) {
+                break;
+            }
+        }
+        finish();
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes,
+                System.nanoTime() - start, result.pv());
+    }
+
+    /**
+     * Multi-PV search: finds the {@code lines} best root moves with their
+     * scores and principal variations. Each iteration searches the root once
+     * per line, leaving out the moves of the lines already found, so later
+     * lines reuse everything the transposition table learned from earlier
+     * ones. The position passed in is not modified.
+     *
+     * @return up to {@code lines} results of the deepest iteration in which every line completed,
+     *         best first; empty if there are no legal moves
+     */
+    public List<SearchResult> searchMultiPv(ChessGame position, SearchLimits limits, int lines) {
+        if (lines < 1) {
+            throw new IllegalArgumentException("Need at least one line: " + lines);
+        }
+        table.newSearch();
+        long start = begin(position, limits, new AtomicBoolean(), false);
+        lines = Math.min(lines, game.generateLegalMoves(moves[0]));
+        int maxDepth = maxDepth(limits);
+
+        List<SearchResult> completed = new ArrayList<>();
+        int[][] linePvs = new int[lines][0];
+        for (int depth = 1; depth <= maxDepth && lines > 0; depth++) {
+            canAbort = depth > 1;
+            excludedRoot.clear();
+            List<SearchResult> current = new ArrayList<>(lines);
+            for (int line = 0; line < lines && !aborted; line++) {
+                previousPv = linePvs[line];
+                followPv = true;
+                int score = negamax(depth, 0, -INFINITY, INFINITY);
+                if (!aborted) {
+                    int[] pv = Arrays.copyOf(pvTable[0], pvLength[0]);
+                    current.add(new SearchResult(pv[0], score, depth, nodes, System.nanoTime() - start, pv));
+                    excludedRoot.add(pv[0]);
+                }
+            }
+            if (aborted) {
+                break;
+            }
+            // A later line can come out ahead when the search is unstable
+            current.sort(Comparator.comparingInt(SearchResult::score).reversed());
+            for (int line = 0; line < lines; line++) {
+                linePvs[line] = current.get(line).pv();
+            }
+            completed = current;
+            long soft = softDeadline;
+            if (soft != 0 && System.nanoTime() - soft >= 0) {
+                break;
+            }
+        }
+        excludedRoot.clear();
+        finish();
+        return completed;
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. Safe to call from another thread.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    // Resets per-search state and starts following a private copy of the position; returns the start time
+    private long begin(ChessGame position, SearchLimits limits, AtomicBoolean stop, boolean ponder) {
+        stopSignal = stop;
+        game = new ChessGame(position);
+        evaluator.attach(game.getBoard());
+        long start = System.nanoTime();
+        nodes = 0;
+        if (!ponder) {
+            setLimits(limits);
+        }
+        aborted = false;
+        previousPv = new int[0];
+        orderer.newSearch();
+        return start;
+    }
+
+    private void finish() {
+        evaluator.detach(game.getBoard());
+        game = null;
+    }
+
+    private static int maxDepth(SearchLimits limits) {
+        return limits.maxDepth() > 0 ? Math.min(limits.maxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+    }
+
+    /**
+     * Replaces the node budget and time limits, with the time counted from
+     * now. Called from another thread to turn a ponder search into a timed
+     * one; the depth limit cannot be changed.
+     */
+    void setLimits(SearchLimits limits) {
+        long now = System.nanoTime();
+        nodeLimit = limits.maxNodes();
+        softDeadline = limits.softMillis() > 0 ? now + limits.softMillis() * 1_000_000L : 0;
+        deadline = limits.maxMillis() > 0 ? now + limits.maxMillis() * 1_000_000L : 0;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta);
+        }
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        // Outside the principal variation a deep enough stored bound can end the node at once
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+                int stored = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && stored >= beta)
+                        || (bound == TranspositionTable.UPPER && stored <= alpha)) {
+                    return stored;
+                }
+            }
+        }
+
+        MoveList list = moves[ply];
+        int count = game.generateLegalMoves(list);
+        if (count == 0) {
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : 0;
+        }
+        int color = game.getTeamTurn().ordinal();
+        orderer.score(game.getBoard(), list, ply, firstMove(list, ply, hashMove), color);
+
+        int originalAlpha = alpha;
+        int bestMove = Move.NONE;
+
+        int best = -INFINITY;
+        int searched = 0;
+        for (int i = 0; i < count; i++) {
+            int move = orderer.next(list, ply, i);
+            if (ply == 0 && !excludedRoot.isEmpty() && excludedRoot.indexOf(move) >= 0) {
+                // The line's old PV move went to a better line, so its PV no longer applies
+                followPv = false;
+                continue;
+            }
+            game.makeMoveUnchecked(move);
+            int score;
+            if (searched++ == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            game.unmakeMove();
+            followPv = false;
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        orderer.recordCutoff(move, ply, depth, color);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        // With root moves left out the score is not the position's, so it is not stored
+        if (ply > 0 || excludedRoot.isEmpty()) {
+            table.store(key, bound == TranspositionTable.UPPER ? Move.NONE : bestMove, best, depth, bound, ply);
+        }
+        return best;
+    }
+
+    // Captures only (all evasions when in check) until the position is quiet
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int best = -INFINITY;
+        if (!inCheck) {
+            // Stand pat: the side to move can usually do at least as well as doing nothing
+            best = evaluate();
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList list = moves[ply];
+        int count = inCheck ? game.generateLegalMoves(list) : game.generateLegalCaptures(list);
+        if (inCheck && count == 0) {
+            return -MATE + ply;
+        }
+        orderer.score(game.getBoard(), list, ply, Move.NONE, game.getTeamTurn().ordinal());
+
+        for (int i = 0; i < count; i++) {
+            int move = orderer.next(list, ply, i);
+            // Moves come best first, so once captures start losing material the rest do too
+            if (!inCheck && orderer.isLosingCapture(ply, i)) {
+                break;
+            }
+            game.makeMoveUnchecked(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Counts a node and checks the limits now and then; true means the search has been aborted
+    private boolean countNode() {
+        nodes++;
+        if (canAbort && (nodes & CHECK_INTERVAL) == 0 && outOfBudget()) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private boolean outOfBudget() {
+        return stopSignal.get()
+                || (nodeLimit > 0 && nodes >= nodeLimit)
+                || (deadline != 0 && System.nanoTime() - deadline >= 0);
+    }
+
+    private void updatePv(int ply, int move) {
+        int[] line = pvTable[ply];
+        line[ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, childLength - (ply + 1));
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    // The previous iteration's PV move while still following the PV, otherwise the hash move
+    private int firstMove(MoveList list, int ply, int hashMove) {
+        if (followPv && ply < previousPv.length && list.indexOf(previousPv[ply]) >= 0) {
+            return previousPv[ply];
+        }
+        followPv = false;
+        return hashMove;
+    }
+
+    private int evaluate() {
+        return evaluator.evaluate(game);
+    }
+}
@@ -0,0 +1,57 @@
+package chess.engine;
+
+/**
+ * When a search should stop. Every limit is optional (0 means unlimited);
+ * the search ends at whichever limit it reaches first, but always finishes
+ * at least one iteration so there is a move to play.
+ * <p>
+ * {@code maxMillis} is a hard limit that aborts an iteration midway, while
+ * {@code softMillis} only keeps a new iteration from starting, so a clocked
+ * search usually stops at an iteration boundary well before the hard limit.
+ * {@link TimeManager} picks both from a {@link GameClock}.
+ *
+ * @param maxDepth   deepest iteration to search, in plies
+ * @param maxNodes   node budget
+ * @param maxMillis  wall-clock budget in milliseconds
+ * @param softMillis no iteration starts once this many milliseconds have passed
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxMillis, long softMillis) {
+
+    public SearchLimits {
+        if (maxDepth < 0 || maxNodes < 0 || maxMillis < 0 || softMillis < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative");
+        }
+    }
+
+    public SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+        this(maxDepth, maxNodes, maxMillis, 0);
+    }
+
+    public static SearchLimits depth(int plies) {
+        return new SearchLimits(plies, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(0, 0, millis);
+    }
+
+    public SearchLimits withDepth(int plies) {
+        return new SearchLimits(plies, maxNodes, maxMillis, softMillis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(maxDepth, nodes, maxMillis, softMillis);
+    }
+
+    public SearchLimits withMillis(long millis) {
+        return new SearchLimits(maxDepth, maxNodes, millis, softMillis);
+    }
+
+    public SearchLimits withSoftMillis(long millis) {
+        return new SearchLimits(maxDepth, maxNodes, maxMillis, millis);
+    }
+}
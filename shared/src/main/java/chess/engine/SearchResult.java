@@ -0,0 +1,68 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a search: the move to play, its score and the line the engine
+ * expects, taken from the deepest iteration that completed.
+ *
+ * @param bestMove the best move as a packed {@link Move}, or {@link Move#NONE} if there are no legal moves
+ * @param score    centipawns from the point of view of the side to move; see {@link #isMate()}
+ * @param depth    depth of the last completed iteration
+ * @param nodes    positions visited
+ * @param nanos    elapsed wall time
+ * @param pv       principal variation, starting with {@code bestMove}
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long nanos, int[] pv) {
+
+    public ChessMove bestChessMove() {
+        return bestMove == Move.NONE ? null : Move.toChessMove(bestMove);
+    }
+
+    public List<ChessMove> principalVariation() {
+        List<ChessMove> line = new ArrayList<>(pv.length);
+        for (int move : pv) {
+            line.add(Move.toChessMove(move));
+        }
+        return line;
+    }
+
+    /**
+     * @return true if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return moves until mate, positive if the side to move mates and negative if it is mated
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(depth)
+                .append(isMate() ? " mate " + mateIn() : " cp " + score)
+                .append(" nodes ").append(nodes)
+                .append(" pv");
+        for (int move : pv) {
+            sb.append(' ').append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.eval.MaterialEvaluator;
+
+/**
+ * Static exchange evaluation: the material won or lost by a capture once both
+ * sides have finished recapturing on the target square, each always using its
+ * least valuable attacker and free to stop when continuing would lose more.
+ * <p>
+ * The exchange is worked out from attack sets alone. Each capture removes the
+ * capturing piece from an occupancy mask and the attackers are recomputed
+ * through it, which uncovers sliders lined up behind (x-rays). Pins are
+ * ignored, as usual for SEE.
+ * <p>
+ * Instances keep a scratch buffer, so give each search thread its own.
+ */
+public final class StaticExchange {
+
+    // Least valuable first, the order recapturing pieces are tried in
+    private static final ChessPiece.PieceType[] BY_VALUE = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+    private static final int KING_VALUE = 20_000;
+
+    // gain[d]: material balance for the side making capture d if the exchange stopped after it
+    private final int[] gain = new int[32];
+
+    /**
+     * @param move a legal move in the position on {@code board}, as a packed {@link Move}
+     * @return the expected material gain of the move in centipawns, negative if it loses material
+     */
+    public int evaluate(ChessBoard board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece mover = board.pieceAt(from);
+        ChessGame.TeamColor side = mover.getTeamColor();
+        long occupied = board.occupied() ^ Bitboards.bit(from);
+
+        if (Move.isEnPassant(move)) {
+            gain[0] = value(ChessPiece.PieceType.PAWN);
+            occupied ^= Bitboards.bit(side == ChessGame.TeamColor.WHITE ? to - 8 : to + 8);
+        } else {
+            ChessPiece victim = board.pieceAt(to);
+            gain[0] = victim == null ? 0 : value(victim.getPieceType());
+        }
+        ChessPiece.PieceType onSquare = mover.getPieceType();
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            gain[0] += value(promotion) - value(ChessPiece.PieceType.PAWN);
+            onSquare = promotion;
+        }
+
+        int depth = 0;
+        while (true) {
+            side = opponent(side);
+            long attackers = board.attackersTo(to, side, occupied) & occupied;
+            if (attackers == 0) {
+                break;
+            }
+            ChessPiece.PieceType capturer = null;
+            long capturerBit = 0L;
+            for (ChessPiece.PieceType type : BY_VALUE) {
+                long candidates = attackers & board.pieces(side, type);
+                if (candidates != 0) {
+                    capturer = type;
+                    capturerBit = candidates & -candidates;
+                    break;
+                }
+            }
+            // A king may only recapture if nothing defends the square any more
+            if (capturer == ChessPiece.PieceType.KING
+                    && (board.attackersTo(to, opponent(side), occupied) & occupied) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = value(onSquare) - gain[depth - 1];
+            occupied ^= capturerBit;
+            onSquare = capturer;
+            if (depth == gain.length - 1) {
+                break;
+            }
+        }
+
+        // Walk back: each side either makes its capture or stops, whichever is better for it
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    private static int value(ChessPiece.PieceType type) {
+        return type == ChessPiece.PieceType.KING ? KING_VALUE : MaterialEvaluator.value(type);
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
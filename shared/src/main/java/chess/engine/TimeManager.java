@@ -0,0 +1,52 @@
+package chess.engine;
+
+/**
+ * Decides how long to think about one move from the clock.
+ * <p>
+ * The soft limit is an even share of the remaining time over the moves still
+ * to play, plus most of the increment; once it has passed no new iteration is
+ * started. The hard limit allows a few times that for an iteration already
+ * under way, but never more than a fixed fraction of the clock, so a single
+ * move cannot flag the player however the search goes. A safety margin is
+ * kept back for latency between the search returning and the clock stopping.
+ * <p>
+ * Immutable and safe to share.
+ */
+public final class TimeManager {
+
+    /** 50 ms move overhead, 30 moves assumed left in sudden death. */
+    public static final TimeManager DEFAULT = new TimeManager(50, 30);
+
+    // How far the hard limit may stretch past the soft one
+    private static final int HARD_FACTOR = 4;
+    // Most of the clock a single move may use, as a divisor; the last move before a time control may use nearly all
+    private static final int MAX_SHARE = 3;
+
+    private final long overheadMillis;
+    private final int defaultMovesToGo;
+
+    /**
+     * @param overheadMillis   time kept back on every move for network and scheduling latency
+     * @param defaultMovesToGo moves assumed left when the clock does not say
+     */
+    public TimeManager(long overheadMillis, int defaultMovesToGo) {
+        if (overheadMillis < 0 || defaultMovesToGo <= 0) {
+            throw new IllegalArgumentException("Invalid time manager settings");
+        }
+        this.overheadMillis = overheadMillis;
+        this.defaultMovesToGo = defaultMovesToGo;
+    }
+
+    /**
+     * @return soft and hard time limits for the next move; depth and nodes are left unlimited
+     */
+    public SearchLimits allocate(GameClock clock) {
+        long available = Math.max(1, clock.remainingMillis() - overheadMillis);
+        int movesToGo = clock.movesToGo() > 0 ? Math.min(clock.movesToGo(), defaultMovesToGo) : defaultMovesToGo;
+
+        long cap = movesToGo == 1 ? available * 9 / 10 : available / MAX_SHARE;
+        long soft = Math.min(available / movesToGo + clock.incrementMillis() * 3 / 4, cap);
+        long hard = Math.min(soft * HARD_FACTOR, cap);
+        return new SearchLimits(0, 0, Math.max(1, hard), Math.max(1, soft));
+    }
+}
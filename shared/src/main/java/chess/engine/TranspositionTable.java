@@ -0,0 +1,193 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size cache of search results keyed by {@link ChessGame#getZobristKey()}.
+ * <p>
+ * Everything lives in one {@code long[]}, two longs per entry: the position key
+ * XORed with the packed data, then the data itself. Threads read and write
+ * entries without locks; if two writes interleave, the stored pair no longer
+ * XORs back to the key, so the probe simply misses instead of returning
+ * another position's data. Buckets hold two entries; a new result replaces the
+ * entry for the same position, otherwise an empty one, otherwise the shallower
+ * or older one.
+ * <pre>
+ *  data bits  0-14  best move (squares and promotion, see {@link Move})
+ *  data bits 15-30  score + 32768
+ *  data bits 31-38  depth
+ *  data bits 39-40  bound (never 0, so a stored entry is never all zero)
+ *  data bits 41-48  search generation, for aging out old entries
+ * </pre>
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 2;
+    private static final int BYTES_PER_ENTRY = ENTRY_LONGS * Long.BYTES;
+
+    private final long[] table;
+    private final int bucketMask;
+    // Searches sharing the table may start at the same time, so bumped atomically
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @param megabytes memory budget; the table uses the largest power-of-two size that fits
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit(megabytes * (1L << 20) / BYTES_PER_ENTRY);
+        entries = Math.min(entries, 1L << 29);
+        table = new long[(int) (entries * ENTRY_LONGS)];
+        bucketMask = (int) (entries / BUCKET_ENTRIES) - 1;
+    }
+
+    /**
+     * Marks the start of a new search so entries from earlier searches are
+     * replaced first. Call it once per root search, not once per thread
+     * searching that root.
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    int generation() {
+        return generation.get() & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    public int capacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    /**
+     * @return the packed data stored for {@code key}, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int slot = base + i * ENTRY_LONGS;
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result. Mate scores are converted from distance-to-root to
+     * distance-to-this-position so they stay correct when probed at another ply.
+     *
+     * @param ply distance from the root of the search that produced the score
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int base = bucket(key);
+        int target = base;
+        int worst = Integer.MAX_VALUE;
+        int current = generation();
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int slot = base + i * ENTRY_LONGS;
+            long data = table[slot + 1];
+            if (data == 0 || (table[slot] ^ data) == key) {
+                target = slot;
+                // Keep the old best move if this result has none
+                if (move == Move.NONE && data != 0) {
+                    move = move(data);
+                }
+                break;
+            }
+            // Deeper and more recent entries are worth more
+            int age = (current - generation(data)) & 0xFF;
+            int value = depth(data) - 4 * age;
+            if (value < worst) {
+                worst = value;
+                target = slot;
+            }
+        }
+
+        long data = Move.squaresAndPromotion(move)
+                | ((long) (toStored(score, ply) + 32768) << 15)
+                | ((long) Math.min(depth, 255) << 31)
+                | ((long) bound << 39)
+                | ((long) current << 41);
+        table[target] = key ^ data;
+        table[target + 1] = data;
+    }
+
+    /**
+     * @return how full the table is in permille, sampled from the first thousand entries
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        int current = generation();
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    // ---------------- Entry fields ----------------
+
+    public static int move(long data) {
+        return (int) (data & 0x7FFF);
+    }
+
+    /**
+     * @param ply distance from the root of the probing search
+     */
+    public static int score(long data, int ply) {
+        int stored = (int) ((data >>> 15) & 0xFFFF) - 32768;
+        if (stored >= Search.MATE - Search.MAX_PLY) {
+            return stored - ply;
+        }
+        if (stored <= -Search.MATE + Search.MAX_PLY) {
+            return stored + ply;
+        }
+        return stored;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 31) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 39) & 3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 41) & 0xFF);
+    }
+
+    private static int toStored(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int bucket(long key) {
+        // High bits pick the bucket; the low bits are still checked through the stored key
+        return (int) ((key >>> 32) & bucketMask) * (BUCKET_ENTRIES * ENTRY_LONGS);
+    }
+}
@@ -0,0 +1,37 @@
+package chess.eval;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Static evaluation of a chess position in centipawns.
+ * <p>
+ * Evaluators that keep incremental state follow one board at a time: the
+ * search calls {@link #attach(ChessBoard)} on the board it is about to make and
+ * unmake moves on, and {@link #detach(ChessBoard)} when it is done. Evaluating
+ * any other position falls back to a full computation.
+ */
+public interface Evaluator {
+
+    /**
+     * @return the score from the point of view of the side to move: positive is good for the player whose turn it is
+     */
+    int evaluate(ChessGame game);
+
+    /**
+     * @return the score from White's point of view, as shown on an evaluation bar
+     */
+    default int whiteScore(ChessGame game) {
+        int score = evaluate(game);
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Starts following {@code board} so later evaluations of it are cheap. Does nothing by default.
+     */
+    default void attach(ChessBoard board) {
+    }
+
+    default void detach(ChessBoard board) {
+    }
+}
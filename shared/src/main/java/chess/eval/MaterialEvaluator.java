@@ -0,0 +1,33 @@
+package chess.eval;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Counts material and nothing else. Stateless, so one instance can be shared by any number of threads.
+ */
+public final class MaterialEvaluator implements Evaluator {
+
+    // Centipawns indexed by PieceType ordinal: KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN
+    private static final int[] VALUES = {0, 900, 500, 330, 320, 100};
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    /**
+     * @return the nominal value of a piece in centipawns; 0 for the king
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    @Override
+    public int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int score = 0;
+        for (ChessPiece.PieceType type : TYPES) {
+            score += VALUES[type.ordinal()] * (Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE, type))
+                    - Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK, type)));
+        }
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
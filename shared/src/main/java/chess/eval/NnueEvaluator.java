@@ -0,0 +1,177 @@
+package chess.eval;
+
+import chess.BoardListener;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Scores positions with an {@link NnueNetwork}.
+ * <p>
+ * When attached to a board, each side's accumulator is updated through
+ * {@link BoardListener} by adding or subtracting one weight column per piece
+ * placed or removed, for moves and unmoves alike. HalfKP features depend on
+ * the king square, so when a king moves its own side's accumulator is marked
+ * stale instead and rebuilt from the board at the next evaluation; the other
+ * side keeps updating incrementally. Any other board is scored by building
+ * both accumulators from scratch.
+ * <p>
+ * Holds its accumulators, so each search thread needs its own instance; they
+ * can all share one network.
+ */
+public final class NnueEvaluator implements Evaluator, BoardListener {
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] NON_KING_TYPES = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.PAWN
+    };
+
+    private final NnueNetwork network;
+    private final NnueKernel kernel;
+
+    // Indexed by the color ordinal of the side whose view it is
+    private final short[][] accumulators;
+    private final int[] kingSquares = new int[2];
+    private final boolean[] stale = {true, true};
+    // Used for boards other than the attached one
+    private final short[][] scratch;
+
+    private ChessBoard attached;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this(network, NnueKernel.best());
+    }
+
+    NnueEvaluator(NnueNetwork network, NnueKernel kernel) {
+        this.network = network;
+        this.kernel = kernel;
+        this.accumulators = new short[2][network.hiddenSize()];
+        this.scratch = new short[2][network.hiddenSize()];
+    }
+
+    /**
+     * @return true when the SIMD kernel is in use
+     */
+    public boolean isVectorized() {
+        return !(kernel instanceof ScalarKernel);
+    }
+
+    @Override
+    public int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        short[][] sides;
+        if (board == attached) {
+            for (ChessGame.TeamColor color : COLORS) {
+                if (stale[color.ordinal()]) {
+                    refresh(board, color, accumulators[color.ordinal()]);
+                    stale[color.ordinal()] = false;
+                }
+            }
+            sides = accumulators;
+        } else {
+            for (ChessGame.TeamColor color : COLORS) {
+                refresh(board, color, scratch[color.ordinal()]);
+            }
+            sides = scratch;
+        }
+        int us = game.getTeamTurn().ordinal();
+        return output(sides[us], sides[1 - us]);
+    }
+
+    /**
+     * The same score built from scratch however the board is followed, for
+     * checking the incremental path and comparing their costs.
+     */
+    public int evaluateFullRefresh(ChessGame game) {
+        for (ChessGame.TeamColor color : COLORS) {
+            refresh(game.getBoard(), color, scratch[color.ordinal()]);
+        }
+        int us = game.getTeamTurn().ordinal();
+        return output(scratch[us], scratch[1 - us]);
+    }
+
+    @Override
+    public void attach(ChessBoard board) {
+        detach(attached);
+        attached = board;
+        boardCleared();
+        board.setListener(this);
+    }
+
+    @Override
+    public void detach(ChessBoard board) {
+        if (board != null && board == attached) {
+            if (board.getListener() == this) {
+                board.setListener(null);
+            }
+            attached = null;
+        }
+    }
+
+    // ---------------- BoardListener ----------------
+
+    @Override
+    public void piecePlaced(ChessPiece piece, int square) {
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            stale[piece.getTeamColor().ordinal()] = true;
+            return;
+        }
+        for (ChessGame.TeamColor color : COLORS) {
+            int side = color.ordinal();
+            if (!stale[side]) {
+                kernel.add(accumulators[side], network.featureWeights,
+                        network.featureOffset(color, kingSquares[side], piece.getTeamColor(), piece.getPieceType(), square));
+            }
+        }
+    }
+
+    @Override
+    public void pieceRemoved(ChessPiece piece, int square) {
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            stale[piece.getTeamColor().ordinal()] = true;
+            return;
+        }
+        for (ChessGame.TeamColor color : COLORS) {
+            int side = color.ordinal();
+            if (!stale[side]) {
+                kernel.subtract(accumulators[side], network.featureWeights,
+                        network.featureOffset(color, kingSquares[side], piece.getTeamColor(), piece.getPieceType(), square));
+            }
+        }
+    }
+
+    @Override
+    public void boardCleared() {
+        stale[0] = true;
+        stale[1] = true;
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    // Biases plus one column per non-king piece; a missing king is treated as standing on a1
+    private void refresh(ChessBoard board, ChessGame.TeamColor perspective, short[] accumulator) {
+        long king = board.pieces(perspective, ChessPiece.PieceType.KING);
+        int kingSquare = NnueNetwork.orient(perspective, king == 0 ? 0 : Long.numberOfTrailingZeros(king));
+        if (accumulator == accumulators[perspective.ordinal()]) {
+            kingSquares[perspective.ordinal()] = kingSquare;
+        }
+
+        System.arraycopy(network.featureBiases, 0, accumulator, 0, accumulator.length);
+        for (ChessGame.TeamColor color : COLORS) {
+            for (ChessPiece.PieceType type : NON_KING_TYPES) {
+                for (long b = board.pieces(color, type); b != 0; b &= b - 1) {
+                    kernel.add(accumulator, network.featureWeights,
+                            network.featureOffset(perspective, kingSquare, color, type, Long.numberOfTrailingZeros(b)));
+                }
+            }
+        }
+    }
+
+    private int output(short[] us, short[] them) {
+        long sum = (long) kernel.activatedDot(us, network.outputWeights, 0)
+                + kernel.activatedDot(them, network.outputWeights, network.hiddenSize())
+                + network.outputBias;
+        return (int) (sum * NnueNetwork.SCALE / (NnueNetwork.QA * NnueNetwork.QB));
+    }
+}
@@ -0,0 +1,40 @@
+package chess.eval;
+
+/**
+ * The arithmetic an {@link NnueEvaluator} spends its time in, over int16
+ * accumulators and weight columns of the network's hidden size.
+ */
+interface NnueKernel {
+
+    /**
+     * {@code accumulator[i] += weights[offset + i]}, wrapping on overflow as the trainer assumes
+     */
+    void add(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * {@code accumulator[i] -= weights[offset + i]}
+     */
+    void subtract(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * @return the sum of {@code clamp(accumulator[i], 0, QA) * weights[offset + i]}
+     */
+    int activatedDot(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * Uses SIMD through the Vector API when the {@code jdk.incubator.vector}
+     * module has been added to the JVM ({@code --add-modules jdk.incubator.vector})
+     * and {@code -Dchess.nnue.vector=false} was not given; plain loops otherwise.
+     */
+    static NnueKernel best() {
+        if (Boolean.parseBoolean(System.getProperty("chess.nnue.vector", "true"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorKernel();
+            } catch (LinkageError e) {
+                // Present but unusable on this platform
+            }
+        }
+        return new ScalarKernel();
+    }
+}
@@ -0,0 +1,169 @@
+package chess.eval;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Weights of an efficiently updatable neural network with HalfKP inputs: for
+ * each side, every non-king piece is a feature keyed by that side's king
+ * square, the piece and its square. The features feed one hidden layer of
+ * int16 neurons per side (the accumulators), which go through a clipped ReLU
+ * into a single output neuron.
+ * <p>
+ * Weights are immutable once loaded, so one network is shared by any number of
+ * {@link NnueEvaluator}s on any number of threads.
+ * <p>
+ * File format, all little-endian as written by common trainers:
+ * <pre>
+ *   int32  magic "NNUE" ({@value #MAGIC})
+ *   int32  version ({@value #VERSION})
+ *   int32  hidden size H
+ *   int16  feature weights [FEATURES][H]
+ *   int16  feature biases [H]
+ *   int16  output weights [2 * H], side to move first
+ *   int32  output bias
+ * </pre>
+ * Accumulators are quantised by {@value #QA} and output weights by
+ * {@value #QB}; the output is scaled to centipawns by {@value #SCALE}.
+ */
+public final class NnueNetwork {
+
+    public static final int MAGIC = 0x4555_4E4E;
+    public static final int VERSION = 1;
+
+    // King square, piece relative to the side whose view it is (5 own, 5 enemy), piece square
+    public static final int FEATURES = 64 * 10 * 64;
+
+    static final int QA = 255;
+    static final int QB = 64;
+    static final int SCALE = 400;
+
+    private static final int HEADER_BYTES = 12;
+
+    private final int hiddenSize;
+    final short[] featureWeights;
+    final short[] featureBiases;
+    final short[] outputWeights;
+    final int outputBias;
+
+    /**
+     * @param featureWeights {@link #FEATURES} columns of {@code hiddenSize} weights each, one column per feature
+     * @param outputWeights  {@code hiddenSize} weights for the side to move, then as many for the other side
+     */
+    public NnueNetwork(int hiddenSize, short[] featureWeights, short[] featureBiases,
+                       short[] outputWeights, int outputBias) {
+        if (hiddenSize <= 0) {
+            throw new IllegalArgumentException("Hidden layer size must be positive: " + hiddenSize);
+        }
+        checkLength("feature weights", featureWeights, (long) FEATURES * hiddenSize);
+        checkLength("feature biases", featureBiases, hiddenSize);
+        checkLength("output weights", outputWeights, 2L * hiddenSize);
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights.clone();
+        this.featureBiases = featureBiases.clone();
+        this.outputWeights = outputWeights.clone();
+        this.outputBias = outputBias;
+    }
+
+    public static NnueNetwork load(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a network in the format described above. The stream is left positioned after the output bias.
+     */
+    public static NnueNetwork read(InputStream in) throws IOException {
+        ByteBuffer header = readFully(in, HEADER_BYTES);
+        int magic = header.getInt();
+        int version = header.getInt();
+        int hiddenSize = header.getInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a network file: bad magic 0x" + Integer.toHexString(magic));
+        }
+        if (version != VERSION) {
+            throw new IOException("Unsupported network version " + version);
+        }
+        if (hiddenSize <= 0 || hiddenSize > 4096) {
+            throw new IOException("Unreasonable hidden layer size " + hiddenSize);
+        }
+
+        short[] featureWeights = readShorts(in, FEATURES * hiddenSize);
+        short[] featureBiases = readShorts(in, hiddenSize);
+        short[] outputWeights = readShorts(in, 2 * hiddenSize);
+        int outputBias = readFully(in, Integer.BYTES).getInt();
+        return new NnueNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, outputBias);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        out.write(buffer(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(hiddenSize).array());
+        writeShorts(out, featureWeights);
+        writeShorts(out, featureBiases);
+        writeShorts(out, outputWeights);
+        out.write(buffer(Integer.BYTES).putInt(outputBias).array());
+    }
+
+    public int hiddenSize() {
+        return hiddenSize;
+    }
+
+    /**
+     * @param perspective the side whose accumulator the feature belongs to
+     * @param kingSquare  that side's king square, already oriented with {@link #orient}
+     * @return the offset of the feature's column in {@link #featureWeights}
+     */
+    int featureOffset(ChessGame.TeamColor perspective, int kingSquare,
+                      ChessGame.TeamColor color, ChessPiece.PieceType type, int square) {
+        int relative = (color == perspective ? 0 : 5) + type.ordinal() - 1;
+        return ((kingSquare * 10 + relative) * 64 + orient(perspective, square)) * hiddenSize;
+    }
+
+    /**
+     * Black sees the board flipped vertically, so both sides share the same weights.
+     */
+    static int orient(ChessGame.TeamColor perspective, int square) {
+        return perspective == ChessGame.TeamColor.WHITE ? square : square ^ 56;
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    private static void checkLength(String name, short[] array, long expected) {
+        if (array.length != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " " + name + " but got " + array.length);
+        }
+    }
+
+    private static ByteBuffer buffer(int bytes) {
+        return ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer readFully(InputStream in, int bytes) throws IOException {
+        byte[] data = in.readNBytes(bytes);
+        if (data.length != bytes) {
+            throw new IOException("Network file is truncated");
+        }
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static short[] readShorts(InputStream in, int count) throws IOException {
+        short[] values = new short[count];
+        readFully(in, count * Short.BYTES).asShortBuffer().get(values);
+        return values;
+    }
+
+    private static void writeShorts(OutputStream out, short[] values) throws IOException {
+        ByteBuffer bytes = buffer(values.length * Short.BYTES);
+        bytes.asShortBuffer().put(values);
+        out.write(bytes.array());
+    }
+}
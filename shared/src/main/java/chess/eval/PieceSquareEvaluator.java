@@ -0,0 +1,118 @@
+package chess.eval;
+
+import chess.BoardListener;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Tapered evaluation: material plus piece-square bonuses, scored once with
+ * midgame tables and once with endgame tables, then blended by how much
+ * non-pawn material is left on the board.
+ * <p>
+ * When attached to a board the two sums and the phase are kept up to date
+ * through {@link BoardListener}, a few array reads per piece placed or
+ * removed, so evaluating the followed board is constant time. Any other board
+ * is scored by a full scan. An attached evaluator belongs to the thread that
+ * makes moves on its board; unattached it holds no state and can be shared.
+ */
+public final class PieceSquareEvaluator implements Evaluator, BoardListener {
+
+    private ChessBoard attached;
+    private int midgame;
+    private int endgame;
+    private int phase;
+
+    @Override
+    public int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int score;
+        if (board == attached) {
+            score = blend(midgame, endgame, phase);
+        } else {
+            score = fullScore(board);
+        }
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    @Override
+    public void attach(ChessBoard board) {
+        detach(attached);
+        attached = board;
+        recompute();
+        board.setListener(this);
+    }
+
+    @Override
+    public void detach(ChessBoard board) {
+        if (board != null && board == attached) {
+            if (board.getListener() == this) {
+                board.setListener(null);
+            }
+            attached = null;
+        }
+    }
+
+    // ---------------- BoardListener ----------------
+
+    @Override
+    public void piecePlaced(ChessPiece piece, int square) {
+        int index = index(piece);
+        midgame += PieceSquareTables.MIDGAME[index][square];
+        endgame += PieceSquareTables.ENDGAME[index][square];
+        phase += PieceSquareTables.PHASE[piece.getPieceType().ordinal()];
+    }
+
+    @Override
+    public void pieceRemoved(ChessPiece piece, int square) {
+        int index = index(piece);
+        midgame -= PieceSquareTables.MIDGAME[index][square];
+        endgame -= PieceSquareTables.ENDGAME[index][square];
+        phase -= PieceSquareTables.PHASE[piece.getPieceType().ordinal()];
+    }
+
+    @Override
+    public void boardCleared() {
+        midgame = 0;
+        endgame = 0;
+        phase = 0;
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    private void recompute() {
+        boardCleared();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = attached.pieceAt(square);
+            if (piece != null) {
+                piecePlaced(piece, square);
+            }
+        }
+    }
+
+    // White's point of view
+    private static int fullScore(ChessBoard board) {
+        int mg = 0, eg = 0, ph = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int index = color.ordinal() * 6 + type.ordinal();
+                for (long b = board.pieces(color, type); b != 0; b &= b - 1) {
+                    int square = Long.numberOfTrailingZeros(b);
+                    mg += PieceSquareTables.MIDGAME[index][square];
+                    eg += PieceSquareTables.ENDGAME[index][square];
+                    ph += PieceSquareTables.PHASE[type.ordinal()];
+                }
+            }
+        }
+        return blend(mg, eg, ph);
+    }
+
+    private static int blend(int mg, int eg, int phase) {
+        int mgWeight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (mg * mgWeight + eg * (PieceSquareTables.MAX_PHASE - mgWeight)) / PieceSquareTables.MAX_PHASE;
+    }
+
+    private static int index(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+}
@@ -0,0 +1,30 @@
+package chess.eval;
+
+/**
+ * Plain loops, which the JIT may auto-vectorise on its own.
+ */
+final class ScalarKernel implements NnueKernel {
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public int activatedDot(short[] accumulator, short[] weights, int offset) {
+        int sum = 0;
+        for (int i = 0; i < accumulator.length; i++) {
+            sum += Math.min(Math.max(accumulator[i], 0), NnueNetwork.QA) * weights[offset + i];
+        }
+        return sum;
+    }
+}
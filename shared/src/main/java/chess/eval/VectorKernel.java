@@ -0,0 +1,68 @@
+package chess.eval;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernel on the Vector API, using the widest vectors the CPU has. Only
+ * loaded by {@link NnueKernel#best()} once it knows the module is there.
+ * <p>
+ * Accumulator updates stay in int16 lanes. The output layer clamps in int16,
+ * then widens each half of the vector to int32 before multiplying, since
+ * {@code 255 * weight} does not fit in a short.
+ */
+final class VectorKernel implements NnueKernel {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = SHORTS.withLanes(int.class);
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .sub(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public int activatedDot(short[] accumulator, short[] weights, int offset) {
+        IntVector sums = IntVector.zero(INTS);
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length()) {
+            ShortVector activated = ShortVector.fromArray(SHORTS, accumulator, i)
+                    .max((short) 0)
+                    .min((short) NnueNetwork.QA);
+            ShortVector weight = ShortVector.fromArray(SHORTS, weights, offset + i);
+            for (int part = 0; part < 2; part++) {
+                IntVector a = (IntVector) activated.convert(VectorOperators.S2I, part);
+                IntVector w = (IntVector) weight.convert(VectorOperators.S2I, part);
+                sums = sums.add(a.mul(w));
+            }
+        }
+        int sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < accumulator.length; i++) {
+            sum += Math.min(Math.max(accumulator[i], 0), NnueNetwork.QA) * weights[offset + i];
+        }
+        return sum;
+    }
+}
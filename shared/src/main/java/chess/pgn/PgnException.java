@@ -0,0 +1,22 @@
+package chess.pgn;
+
+import java.io.IOException;
+
+/**
+ * A game in a PGN stream could not be read. The reader has already skipped
+ * the rest of that game, so reading can carry on with the next one.
+ */
+public class PgnException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long lineNumber;
+
+    public PgnException(long lineNumber, String message) {
+        super("Line " + lineNumber + ": " + message);
+        this.lineNumber = lineNumber;
+    }
+
+    public long lineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,42 @@
+package chess.pgn;
+
+import chess.ChessGame;
+
+import java.util.Map;
+
+/**
+ * One game of a PGN file.
+ *
+ * @param tags   tag pairs in file order; a "FEN" tag gives the starting position
+ * @param moves  the mainline as packed {@link chess.Move}s, each legal in the position before it
+ * @param result "1-0", "0-1", "1/2-1/2" or "*"
+ */
+public record PgnGame(Map<String, String> tags, int[] moves, String result) {
+
+    /**
+     * @return the value of tag {@code name}, or null if the game does not have it
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return a new game at the position before the first move
+     * @throws IllegalArgumentException if the FEN tag is malformed
+     */
+    public ChessGame startingPosition() {
+        String fen = tags.get("FEN");
+        return fen != null ? ChessGame.fromFen(fen) : new ChessGame();
+    }
+
+    /**
+     * @return a new game with every move played, which can be unmade back to the start
+     */
+    public ChessGame finalPosition() {
+        ChessGame game = startingPosition();
+        for (int move : moves) {
+            game.makeMoveUnchecked(move);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,512 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Reads PGN one game at a time, so archives of any size are read in bounded
+ * memory: one buffer of text, one game's tags and one game's moves.
+ * <p>
+ * Each mainline move is resolved against the legal moves of the position, so
+ * a game that comes back is a legal game. Comments, variations, NAGs and
+ * escape lines are skipped. A game that cannot be read (unknown or illegal
+ * move, broken tag, bad FEN) is skipped up to its result and reported with a
+ * {@link PgnException}; the next call carries on with the game after it.
+ * <p>
+ * {@link #readFile(Path, int, Consumer)} splits a file into one piece per
+ * thread and reads them in parallel. Run from the command line as
+ * {@code PgnReader <file> [threads]} to print games per second.
+ */
+public final class PgnReader implements Closeable {
+
+    /**
+     * Games read, games skipped as unreadable and wall time of one {@link #readFile} run.
+     */
+    public record Result(long games, long errors, long nanos) {
+        public long gamesPerSecond() {
+            return nanos == 0 ? 0 : games * 1_000_000_000L / nanos;
+        }
+    }
+
+    static final int MAX_TAG_LENGTH = 4096;
+    static final int MAX_PLIES = 10_000;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    // A game starts at a line with an Event tag, which the Seven Tag Roster puts first
+    private static final byte[] GAME_START = "\n[Event ".getBytes(StandardCharsets.US_ASCII);
+    private static final int SPLIT_BUFFER = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private boolean lineStart = true;
+
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder token = new StringBuilder(MAX_TOKEN_LENGTH);
+    private final MoveList legal = new MoveList();
+    private int[] moves = new int[256];
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    public PgnReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the next game, or null at the end of the stream
+     * @throws PgnException if the next game cannot be read; it has been skipped
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        int c = skipSpace();
+        while (c == '[') {
+            readTag(tags);
+            c = skipSpace();
+        }
+        if (c == -1 && tags.isEmpty()) {
+            return null;
+        }
+
+        ChessGame game;
+        try {
+            String fen = tags.get("FEN");
+            game = fen != null ? ChessGame.fromFen(fen) : new ChessGame();
+        } catch (IllegalArgumentException e) {
+            throw skipGame(e.getMessage());
+        }
+
+        int count = 0;
+        String result = null;
+        while (result == null) {
+            c = skipSpace();
+            if (c == -1 || c == '[') {
+                break;
+            }
+            switch (c) {
+                case '{' -> skipComment();
+                case ';' -> skipLine();
+                case '(' -> skipVariation();
+                case '$', ')' -> {
+                    read();
+                    while (peek() >= '0' && peek() <= '9') {
+                        read();
+                    }
+                }
+                default -> {
+                    readToken();
+                    result = result(token);
+                    if (result != null) {
+                        break;
+                    }
+                    int start = moveNumberLength(token);
+                    if (start == token.length()) {
+                        break;
+                    }
+                    if (token.length() > MAX_TOKEN_LENGTH) {
+                        throw skipGame("move is too long");
+                    }
+                    int move;
+                    try {
+                        move = San.parse(game, token, start, token.length(), legal);
+                    } catch (IllegalArgumentException e) {
+                        throw skipGame("move " + (count / 2 + 1) + ": " + e.getMessage());
+                    }
+                    if (count == MAX_PLIES) {
+                        throw skipGame("game is longer than " + MAX_PLIES + " plies");
+                    }
+                    game.makeMoveUnchecked(move);
+                    if (count == moves.length) {
+                        moves = Arrays.copyOf(moves, count * 2);
+                    }
+                    moves[count++] = move;
+                }
+            }
+        }
+        if (result == null) {
+            result = tags.getOrDefault("Result", "*");
+        }
+        return new PgnGame(tags, Arrays.copyOf(moves, count), result);
+    }
+
+    /**
+     * @return the line the reader has reached, counted from the start of its stream
+     */
+    public long lineNumber() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads every game in {@code file}, passing each to {@code sink}. With more
+     * than one thread the file is cut into pieces at lines starting with
+     * {@code [Event }, one piece per thread, and {@code sink} is called from
+     * all of them at once, in no particular order.
+     */
+    public static Result readFile(Path file, int threads, Consumer<PgnGame> sink) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = splitPoints(channel, Math.max(1, threads));
+            long[] counts = new long[2];
+            if (bounds.length == 2) {
+                readRange(channel, 0, bounds[1], sink, counts);
+                return new Result(counts[0], counts[1], System.nanoTime() - start);
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(bounds.length - 1);
+            try {
+                List<Future<long[]>> futures = new ArrayList<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    long from = bounds[i];
+                    long to = bounds[i + 1];
+                    futures.add(pool.submit(() -> {
+                        long[] piece = new long[2];
+                        readRange(channel, from, to, sink, piece);
+                        return piece;
+                    }));
+                }
+                for (Future<long[]> future : futures) {
+                    long[] piece = future.get();
+                    counts[0] += piece[0];
+                    counts[1] += piece[1];
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("PGN read interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("PGN reader failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+            return new Result(counts[0], counts[1], System.nanoTime() - start);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: PgnReader <file> [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Result single = readFile(Path.of(args[0]), 1, game -> {});
+        Result parallel = readFile(Path.of(args[0]), threads, game -> {});
+        System.out.printf("%,d games, %,d skipped%n", single.games(), single.errors());
+        System.out.printf("1 thread:  %,d games/s%n", single.gamesPerSecond());
+        System.out.printf("%d threads: %,d games/s (%.2fx)%n", threads, parallel.gamesPerSecond(),
+                (double) single.nanos() / parallel.nanos());
+    }
+
+    // ---------------- Tokens ----------------
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        read();
+        skipSpace();
+        text.setLength(0);
+        while (isNameChar(peek())) {
+            text.append((char) read());
+        }
+        if (text.isEmpty() || skipSpace() != '"') {
+            throw skipGame("malformed tag");
+        }
+        String name = text.toString();
+        read();
+
+        text.setLength(0);
+        int c;
+        while ((c = read()) != '"') {
+            if (c == '\\') {
+                c = read();
+            }
+            if (c == -1 || c == '\n') {
+                throw skipGame("unterminated tag value");
+            }
+            if (text.length() == MAX_TAG_LENGTH) {
+                throw skipGame("tag value is longer than " + MAX_TAG_LENGTH + " characters");
+            }
+            text.append((char) c);
+        }
+        if (skipSpace() != ']') {
+            throw skipGame("malformed tag");
+        }
+        read();
+        tags.put(name, text.toString());
+    }
+
+    // Reads up to the next space or delimiter, keeping at most one character past the limit
+    private void readToken() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) != -1 && !Character.isWhitespace(c) && "{}()[];$".indexOf(c) < 0) {
+            read();
+            if (token.length() <= MAX_TOKEN_LENGTH) {
+                token.append((char) c);
+            }
+        }
+    }
+
+    private static String result(CharSequence token) {
+        for (String result : RESULTS) {
+            if (result.contentEquals(token)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    // Length of a leading move number such as "12." or "12...", which may run into the move
+    private static int moveNumberLength(CharSequence token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == token.length() || token.charAt(i) != '.') {
+            return i == token.length() ? i : 0;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isNameChar(int c) {
+        return c >= 0 && (Character.isLetterOrDigit(c) || c == '_');
+    }
+
+    // ---------------- Skipping ----------------
+
+    // Skips to the end of the current game and returns the error to throw
+    private PgnException skipGame(String problem) throws IOException {
+        long errorLine = line;
+        while (true) {
+            int c = skipSpace();
+            if (c == -1 || (c == '[' && lineStart)) {
+                break;
+            }
+            switch (c) {
+                case '{' -> skipComment();
+                case ';' -> skipLine();
+                case '(' -> skipVariation();
+                default -> {
+                    if ("$)[]\"".indexOf(c) >= 0) {
+                        read();
+                    } else {
+                        readToken();
+                        if (result(token) != null) {
+                            return new PgnException(errorLine, problem);
+                        }
+                    }
+                }
+            }
+        }
+        return new PgnException(errorLine, problem);
+    }
+
+    // Skips spaces, newlines and % escape lines; returns the next character without consuming it
+    private int skipSpace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == '%' && lineStart) {
+                skipLine();
+            } else if (c != -1 && Character.isWhitespace(c)) {
+                read();
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != '\n');
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != '}');
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        int c;
+        while ((c = peek()) != -1) {
+            if (c == '{') {
+                skipComment();
+                continue;
+            }
+            if (c == ';') {
+                skipLine();
+                continue;
+            }
+            read();
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    // ---------------- Characters ----------------
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            lineStart = c == '\n';
+            if (lineStart) {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    // ---------------- File splitting ----------------
+
+    // Piece boundaries from 0 to the file size, each after the first at the start of a game
+    private static long[] splitPoints(FileChannel channel, int pieces) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[pieces + 1];
+        int count = 1;
+        for (int i = 1; i < pieces; i++) {
+            long bound = findGameStart(channel, Math.max(size * i / pieces, bounds[count - 1]), size);
+            if (bound > bounds[count - 1] && bound < size) {
+                bounds[count++] = bound;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long findGameStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(SPLIT_BUFFER);
+        // Back up one byte so a game starting exactly at from is found
+        long base = Math.max(0, from - 1);
+        while (base < size) {
+            bytes.clear();
+            int n = channel.read(bytes, base);
+            if (n <= 0) {
+                break;
+            }
+            byte[] array = bytes.array();
+            for (int i = 0; i + GAME_START.length <= n; i++) {
+                if (matchesGameStart(array, i)) {
+                    return base + i + 1;
+                }
+            }
+            if (base + n >= size) {
+                break;
+            }
+            // Overlap so a marker straddling two reads is not missed
+            base += n - GAME_START.length + 1;
+        }
+        return size;
+    }
+
+    private static boolean matchesGameStart(byte[] array, int offset) {
+        for (int i = 0; i < GAME_START.length; i++) {
+            if (array[offset + i] != GAME_START[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readRange(FileChannel channel, long from, long to, Consumer<PgnGame> sink,
+                                  long[] counts) throws IOException {
+        PgnReader reader = new PgnReader(new RangeInputStream(channel, from, to));
+        while (true) {
+            PgnGame game;
+            try {
+                game = reader.next();
+            } catch (PgnException e) {
+                counts[1]++;
+                continue;
+            }
+            if (game == null) {
+                return;
+            }
+            counts[0]++;
+            sink.accept(game);
+        }
+    }
+
+    // Positional reads of [from, to) of a channel that other threads read too
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.position = from;
+            this.end = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n < 0) {
+                return -1;
+            }
+            position += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format: the Seven Tag Roster in its standard
+ * order (with "?" for any that are missing), then the other tags, then the
+ * movetext in SAN wrapped at {@value #LINE_LENGTH} columns, ending with the
+ * result and a blank line.
+ */
+public final class PgnWriter implements Closeable, Flushable {
+
+    static final int LINE_LENGTH = 80;
+    private static final String[] ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+    private final Writer out;
+    private final StringBuilder text = new StringBuilder(1024);
+    private final StringBuilder word = new StringBuilder(16);
+    private final MoveList legal = new MoveList();
+
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the game's FEN tag is malformed
+     */
+    public void write(PgnGame game) throws IOException {
+        text.setLength(0);
+        Map<String, String> tags = game.tags();
+        for (String name : ROSTER) {
+            String value = name.equals("Result") ? game.result() : tags.get(name);
+            appendTag(name, value != null ? value : name.equals("Date") ? "????.??.??" : "?");
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!isRoster(tag.getKey())) {
+                appendTag(tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        ChessGame position = game.startingPosition();
+        int lineStart = text.length();
+        int number = position.getFullmoveNumber();
+        for (int i = 0; i < game.moves().length; i++) {
+            word.setLength(0);
+            boolean white = position.getTeamTurn() == ChessGame.TeamColor.WHITE;
+            if (white || i == 0) {
+                word.append(number).append(white ? ". " : "... ");
+            }
+            San.appendTo(position, game.moves()[i], legal, word);
+            lineStart = appendWord(lineStart);
+            position.makeMoveUnchecked(game.moves()[i]);
+            if (!white) {
+                number++;
+            }
+        }
+        word.setLength(0);
+        word.append(game.result());
+        appendWord(lineStart);
+        text.append("\n\n");
+        out.append(text);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    private void appendTag(String name, String value) {
+        text.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\');
+            }
+            text.append(c);
+        }
+        text.append("\"]\n");
+    }
+
+    // Appends word after a space, or on a new line if it would not fit; returns where the current line starts
+    private int appendWord(int lineStart) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + word.length() > LINE_LENGTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(word);
+        return lineStart;
+    }
+
+    private static boolean isRoster(String name) {
+        for (String roster : ROSTER) {
+            if (roster.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
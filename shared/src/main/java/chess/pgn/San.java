@@ -0,0 +1,218 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+/**
+ * Standard Algebraic Notation, resolved against the legal moves of a
+ * {@link ChessGame}: {@code e4}, {@code Nbd7}, {@code exd6}, {@code O-O-O},
+ * {@code e8=Q+}.
+ * <p>
+ * Parsing accepts the usual variations seen in the wild: annotation marks
+ * ({@code + # ! ?}), {@code 0-0} for castling, promotions without {@code =},
+ * and long algebraic forms such as {@code Ng1-f3}.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "KQRBN";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private San() {
+    }
+
+    public static int parse(ChessGame game, CharSequence san) {
+        return parse(game, san, 0, san.length(), new MoveList());
+    }
+
+    /**
+     * Finds the legal move written as {@code san[start, end)} in {@code game}.
+     *
+     * @param legal scratch list, overwritten with the legal moves
+     * @return the move, as generated by {@link ChessGame#generateLegalMoves(MoveList)}
+     * @throws IllegalArgumentException if the text is not SAN, or names no legal move or several
+     */
+    public static int parse(ChessGame game, CharSequence san, int start, int end, MoveList legal) {
+        while (end > start && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        game.generateLegalMoves(legal);
+
+        char first = end > start ? san.charAt(start) : ' ';
+        if (first == 'O' || first == '0') {
+            int length = end - start;
+            if (!isCastling(san, start, end, first)) {
+                throw error(san, start, end, "is not a move");
+            }
+            int toFile = length == 3 ? 6 : 2;
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if (Move.isCastle(move) && (Move.to(move) & 7) == toFile) {
+                    return move;
+                }
+            }
+            throw error(san, start, end, "is not legal here");
+        }
+
+        int i = start;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        int letter = PIECE_LETTERS.indexOf(first);
+        if (letter >= 0) {
+            type = TYPES[letter];
+            i++;
+        }
+
+        ChessPiece.PieceType promotion = null;
+        if (end - i >= 3 && PIECE_LETTERS.indexOf(san.charAt(end - 1)) > 0) {
+            promotion = TYPES[PIECE_LETTERS.indexOf(san.charAt(end - 1))];
+            end--;
+            if (san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+
+        if (end - i < 2) {
+            throw error(san, start, end, "is not a move");
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            throw error(san, start, end, "has no target square");
+        }
+        int to = toRank * 8 + toFile;
+
+        // Whatever is left is disambiguation and capture marks
+        int fromFile = -1;
+        int fromRank = -1;
+        for (; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw error(san, start, end, "is not a move");
+            }
+        }
+
+        int found = Move.NONE;
+        for (int m = 0; m < legal.size(); m++) {
+            int move = legal.get(m);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion
+                    || (fromFile >= 0 && (from & 7) != fromFile) || (fromRank >= 0 && (from >>> 3) != fromRank)
+                    || game.getBoard().pieceAt(from).getPieceType() != type) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw error(san, start, end, "is ambiguous");
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw error(san, start, end, "is not legal here");
+        }
+        return found;
+    }
+
+    public static String format(ChessGame game, int move) {
+        StringBuilder out = new StringBuilder(8);
+        appendTo(game, move, new MoveList(), out);
+        return out.toString();
+    }
+
+    /**
+     * Writes a legal {@code move} of {@code game} in SAN, with {@code +} or
+     * {@code #} when it gives check or mate. The game is left as it was.
+     *
+     * @param legal scratch list, overwritten
+     */
+    public static void appendTo(ChessGame game, int move, MoveList legal, StringBuilder out) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece.PieceType type = game.getBoard().pieceAt(from).getPieceType();
+        boolean capture = game.getBoard().pieceAt(to) != null || Move.isEnPassant(move)
+                || (type == ChessPiece.PieceType.PAWN && ((from ^ to) & 7) != 0);
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            out.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == ChessPiece.PieceType.PAWN) {
+            if (capture) {
+                out.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(out, to);
+            ChessPiece.PieceType promotion = Move.promotion(move);
+            if (promotion != null) {
+                out.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+        } else {
+            out.append(PIECE_LETTERS.charAt(type.ordinal()));
+            appendDisambiguation(game, move, type, legal, out);
+            if (capture) {
+                out.append('x');
+            }
+            appendSquare(out, to);
+        }
+
+        game.makeMoveUnchecked(move);
+        ChessGame.TeamColor opponent = game.getTeamTurn();
+        if (game.isInCheck(opponent)) {
+            out.append(game.generateLegalMoves(legal) == 0 ? '#' : '+');
+        }
+        game.unmakeMove();
+    }
+
+    // ---------------- Helper Functions ----------------
+
+    // File if that tells the pieces apart, else rank, else both
+    private static void appendDisambiguation(ChessGame game, int move, ChessPiece.PieceType type,
+                                             MoveList legal, StringBuilder out) {
+        int from = Move.from(move);
+        game.generateLegalMoves(legal);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = Move.from(legal.get(i));
+            if (other == from || Move.to(legal.get(i)) != Move.to(move)
+                    || game.getBoard().pieceAt(other).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= (other & 7) == (from & 7);
+            sameRank |= (other >>> 3) == (from >>> 3);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            out.append((char) ('a' + (from & 7)));
+        } else if (!sameRank) {
+            out.append((char) ('1' + (from >>> 3)));
+        } else {
+            appendSquare(out, from);
+        }
+    }
+
+    private static boolean isCastling(CharSequence san, int start, int end, char o) {
+        int length = end - start;
+        if (length != 3 && length != 5) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (san.charAt(i) != ((i - start) % 2 == 0 ? o : '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendSquare(StringBuilder out, int square) {
+        out.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    private static IllegalArgumentException error(CharSequence san, int start, int end, String problem) {
+        return new IllegalArgumentException("\"" + san.subSequence(start, Math.max(start, end)) + "\" " + problem);
+    }
+}
@@ -0,0 +1,11 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One line of a multi-PV analysis, moves in coordinate notation such as "e2e4" or "e7e8q".
+ *
+ * @param score centipawns for the side to move
+ * @param mate  moves to mate, negative when the side to move is mated; null if no mate was found
+ */
+public record AnalysisLine(String move, int score, Integer mate, List<String> pv) {}
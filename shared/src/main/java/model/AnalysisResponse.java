@@ -0,0 +1,5 @@
+package model;
+
+import java.util.List;
+
+public record AnalysisResponse(int gameID, int depth, long nodes, List<AnalysisLine> lines) {}
@@ -7,10 +7,6 @@ public record GameData(
         String gameName,
         String gameData
 ) {
-    public String gameData() {
-        return gameName;
-    }
-
     public Object getWhiteUsername() {
         return whiteUsername;
     }
@@ -0,0 +1,81 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class AttackMapTests {
+
+    @Test
+    @DisplayName("Attack Maps Match Attackers Through Make And Unmake")
+    public void attackMapsMatchAttackers() {
+        Random random = new Random(1010);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            ChessGame game = new ChessGame();
+            int plies = 0;
+            for (; plies < 100 && game.generateLegalMoves(moves) > 0; plies++) {
+                assertAttackMaps(game.getBoard());
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+            }
+            // Unmake hands back the maps cached before each move
+            for (; plies > 0; plies--) {
+                game.unmakeMove();
+                assertAttackMaps(game.getBoard());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Check Detected After Deserializing")
+    public void checkAfterDeserializing() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        // 1. e4 f5 2. Qh5+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 6), ChessPosition.of(5, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 4), ChessPosition.of(5, 8), null));
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.BLACK));
+
+        Gson gson = new Gson();
+        ChessGame copy = gson.fromJson(gson.toJson(game), ChessGame.class);
+        Assertions.assertTrue(copy.isInCheck(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(copy.isInCheck(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Attack Maps Follow Pieces Added And Removed")
+    public void attackMapsFollowEdits() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertAttackMaps(board);
+        Random random = new Random(1011);
+        ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+        for (int edit = 0; edit < 500; edit++) {
+            ChessPosition position = ChessPosition.of(1 + random.nextInt(8), 1 + random.nextInt(8));
+            ChessPiece piece = random.nextInt(3) == 0 ? null
+                    : new ChessPiece(ChessGame.TeamColor.values()[random.nextInt(2)], types[random.nextInt(types.length)]);
+            board.addPiece(position, piece);
+            assertAttackMaps(board);
+        }
+    }
+
+    private static void assertAttackMaps(ChessBoard board) {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            long expected = 0L;
+            for (int square = 0; square < 64; square++) {
+                if (board.attackersTo(square, color, board.occupied()) != 0) {
+                    expected |= Bitboards.bit(square);
+                }
+            }
+            Assertions.assertEquals(expected, board.attacks(color), color + " attack map");
+            long king = board.pieces(color, ChessPiece.PieceType.KING);
+            // With several kings (edited boards only) any one of them will do
+            int kingSquare = board.kingSquare(color);
+            Assertions.assertTrue(king == 0 ? kingSquare == -1 : (king & Bitboards.bit(kingSquare)) != 0,
+                    color + " king square");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DrawTests {
+
+    private static final String[] KNIGHT_SHUFFLE = {"g1f3", "g8f6", "f3g1", "f6g8"};
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(1, game.getRepetitionCount());
+        play(game, KNIGHT_SHUFFLE);
+        Assertions.assertEquals(2, game.getRepetitionCount());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        play(game, KNIGHT_SHUFFLE);
+        Assertions.assertEquals(3, game.getRepetitionCount());
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertTrue(game.isDraw());
+
+        game.unmakeMove();
+        Assertions.assertEquals(2, game.getRepetitionCount(), "Position after Ng1 has been seen twice");
+        Assertions.assertFalse(game.isDraw());
+    }
+
+    @Test
+    @DisplayName("Repetition Scan Stops At Irreversible Move")
+    public void scanStopsAtIrreversibleMove() {
+        ChessGame game = new ChessGame();
+        play(game, KNIGHT_SHUFFLE);
+        play(game, "e2e4", "e7e5");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getRepetitionCount());
+        play(game, KNIGHT_SHUFFLE);
+        play(game, KNIGHT_SHUFFLE);
+        Assertions.assertTrue(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("History Starts When The Game Is Loaded Or Copied")
+    public void historyStartsAtLoad() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w - - 20 30");
+        Assertions.assertEquals(0, game.getHistoryLength());
+        play(game, "e1f1", "e8f8", "f1e1", "f8e8");
+        Assertions.assertEquals(4, game.getHistoryLength());
+        Assertions.assertEquals(2, game.getRepetitionCount());
+        Assertions.assertEquals(1, new ChessGame(game).getRepetitionCount());
+    }
+
+    @Test
+    @DisplayName("Fifty-Move Rule")
+    public void fiftyMoveRule() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w - - 98 80");
+        play(game, "h1h2");
+        Assertions.assertFalse(game.isFiftyMoveRule());
+        play(game, "e8d8");
+        Assertions.assertTrue(game.isFiftyMoveRule());
+        Assertions.assertTrue(game.isDraw());
+
+        game.unmakeMove();
+        Assertions.assertFalse(game.isDraw());
+    }
+
+    @Test
+    @DisplayName("Checkmate On The Fiftieth Move Is Not A Draw")
+    public void checkmateBeatsFiftyMoveRule() {
+        ChessGame game = ChessGame.fromFen("7k/8/6K1/8/8/8/8/R7 w - - 99 80");
+        play(game, "a1a8");
+        Assertions.assertTrue(game.isFiftyMoveRule());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.isDraw());
+    }
+
+    @Test
+    @DisplayName("Stalemate Is A Draw")
+    public void stalemate() {
+        Assertions.assertTrue(ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").isDraw());
+        Assertions.assertFalse(new ChessGame().isDraw());
+    }
+
+    private static void play(ChessGame game, String... moves) {
+        for (String move : moves) {
+            game.makeMoveUnchecked(new ChessMove(
+                    new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                    new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null));
+        }
+    }
+}
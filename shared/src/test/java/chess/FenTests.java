@@ -0,0 +1,113 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        Assertions.assertEquals(Fen.START, new ChessGame().toFen());
+        ChessGame parsed = ChessGame.fromFen(Fen.START);
+        Assertions.assertEquals(new ChessGame(), parsed);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), parsed.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Standard Positions Survive A Parse And Format")
+    public void roundTrip() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 40",
+        };
+        for (String fen : positions) {
+            Assertions.assertEquals(fen, ChessGame.fromFen(fen).toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Counters Follow Moves And Unmoves")
+    public void counters() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2", game.toFen());
+        game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(3, game.getFullmoveNumber());
+
+        game.unmakeMove();
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2", game.toFen());
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(Fen.START, game.toFen());
+    }
+
+    @Test
+    @DisplayName("Random Games Survive A Format And Parse")
+    public void randomGames() {
+        Random random = new Random(22);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int plies = 0; plies < 150 && game.generateLegalMoves(moves) > 0; plies++) {
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+                String fen = game.toFen();
+                ChessGame parsed = ChessGame.fromFen(fen);
+                Assertions.assertEquals(game, parsed, fen);
+                Assertions.assertEquals(game.getZobristKey(), parsed.getZobristKey(), fen);
+                Assertions.assertEquals(fen, parsed.toFen());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Optional Counters And Extra Spaces")
+    public void lenientFields() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R  w  K  - ");
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", game.toFen());
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 5 9",
+                ChessGame.fromFen(new StringBuilder("4k3/8/8/8/8/8/8/4K2R w K - 5 9")).toFen());
+    }
+
+    @Test
+    @DisplayName("Castling Rights Without Their King And Rook Are Dropped")
+    public void impossibleCastlingDropped() {
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1",
+                ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w KQkq - 0 1").toFen());
+    }
+
+    @Test
+    @DisplayName("Malformed Records Are Rejected")
+    public void malformedRejected() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 x",
+                "rnbqqbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQ - 0 1",
+                "rnbqkbnP/pppppppp/8/8/8/8/PPPPPPP1/RNBQKBNR w KQq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Random Games Survive An Encode And Decode")
+    public void roundTrip() {
+        Random random = new Random(21);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int plies = 0; plies < 120 && game.generateLegalMoves(moves) > 0; plies++) {
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+
+                byte[] data = GameCodec.encode(game);
+                Assertions.assertEquals(GameCodec.LENGTH, data.length);
+                ChessGame decoded = GameCodec.decode(data);
+                Assertions.assertEquals(game, decoded, "Position changed at ply " + plies);
+                Assertions.assertEquals(game.getTeamTurn(), decoded.getTeamTurn());
+                Assertions.assertEquals(game.castlingRights(), decoded.castlingRights());
+                Assertions.assertEquals(game.enPassantSquare(), decoded.enPassantSquare());
+                Assertions.assertEquals(game.getHalfmoveClock(), decoded.getHalfmoveClock());
+                Assertions.assertEquals(game.getFullmoveNumber(), decoded.getFullmoveNumber());
+                Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Decoded Game Plays On Like The Original")
+    public void decodedGamePlays() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+
+        Assertions.assertEquals(Bitboards.square(3, 5), decoded.enPassantSquare());
+        Assertions.assertEquals(game.legalMoves().size(), decoded.legalMoves().size());
+        decoded.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        decoded.unmakeMove();
+        Assertions.assertEquals(game, decoded);
+    }
+
+    @Test
+    @DisplayName("Version 1 Encodings Still Decode")
+    public void versionOneDecodes() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 7 30");
+        byte[] data = GameCodec.encode(game);
+        byte[] v1 = Arrays.copyOf(data, 36);
+        v1[1] = 1;
+
+        ChessGame decoded = GameCodec.decode(v1);
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(0, decoded.getHalfmoveClock());
+        Assertions.assertEquals(1, decoded.getFullmoveNumber());
+        Assertions.assertEquals(30, GameCodec.decode(data).getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("Encoding Is Far Smaller Than Json")
+    public void smallerThanJson() {
+        ChessGame game = new ChessGame();
+        int json = new Gson().toJson(game).length();
+        Assertions.assertTrue(GameCodec.LENGTH * 5 < json, "JSON is only " + json + " characters");
+    }
+
+    @Test
+    @DisplayName("Bad Encodings Are Rejected")
+    public void badEncodingsRejected() {
+        byte[] good = GameCodec.encode(new ChessGame());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[GameCodec.LENGTH - 1]));
+
+        byte[] magic = good.clone();
+        magic[0] = '{';
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(magic));
+
+        byte[] version = good.clone();
+        version[1] = GameCodec.VERSION + 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(version));
+
+        byte[] enPassant = good.clone();
+        enPassant[3] = 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(enPassant));
+
+        byte[] piece = good.clone();
+        piece[20] = (byte) 0xD0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(piece));
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Every Random Playout")
+    public void randomPlayoutsRoundTrip() {
+        Random random = new Random(240);
+        for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+            ChessGame game = new ChessGame();
+            List<ChessGame> history = new ArrayList<>();
+            int plies = 0;
+            for (; plies < 120; plies++) {
+                List<ChessMove> moves = legalMoves(game);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                history.add(new ChessGame(game));
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+            }
+            for (int i = plies - 1; i >= 0; i--) {
+                game.unmakeMove();
+                Assertions.assertEquals(history.get(i), game, "Unmake did not restore ply " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unmake Special Moves")
+    public void unmakeSpecialMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        // 1. e4 a6 2. e5 d5 (sets up en passant) 3. exd6 e.p.
+        play(game, 2, 5, 4, 5);
+        play(game, 7, 1, 6, 1);
+        play(game, 4, 5, 5, 5);
+        play(game, 7, 4, 5, 4);
+        ChessGame before = new ChessGame(game);
+
+        game.makeMove(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null));
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(5, 4)), "En passant capture missing");
+        game.unmakeMove();
+        Assertions.assertEquals(before, game, "Unmake did not restore en passant capture");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new ChessGame().unmakeMove());
+    }
+
+    private static void play(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null));
+    }
+
+    private static List<ChessMove> legalMoves(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    moves.addAll(game.validMoves(position));
+                }
+            }
+        }
+        return moves;
+    }
+}
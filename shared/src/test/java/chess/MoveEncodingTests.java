@@ -0,0 +1,96 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class MoveEncodingTests {
+
+    @Test
+    @DisplayName("Packed Move Round Trip")
+    public void packedMoveRoundTrip() {
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(8, 5), ChessPiece.PieceType.KNIGHT);
+        int move = Move.fromChessMove(promotion);
+        Assertions.assertEquals(promotion, Move.toChessMove(move));
+        Assertions.assertEquals("e7e8n", Move.toString(move));
+        Assertions.assertTrue(Move.isPromotion(move));
+        Assertions.assertFalse(Move.isCapture(move));
+
+        int quiet = Move.of(Bitboards.square(2, 5), Bitboards.square(4, 5));
+        Assertions.assertEquals("e2e4", Move.toString(quiet));
+        Assertions.assertNull(Move.promotion(quiet));
+    }
+
+    @Test
+    @DisplayName("Int Moves Match Object Moves")
+    public void intMovesMatchObjectMoves() {
+        ChessGame game = new ChessGame();
+        MoveList list = new MoveList();
+        // 1. e4 d5 2. e5 f5: white can take en passant on f6
+        for (String uci : new String[]{"e2e4", "d7d5", "e4e5", "f7f5"}) {
+            game.generateLegalMoves(list);
+            game.makeMoveUnchecked(list.get(list.indexOf(parse(uci))));
+        }
+
+        int count = game.generateLegalMoves(list);
+        Set<ChessMove> fromInts = new HashSet<>(list.toChessMoves());
+        Assertions.assertEquals(count, fromInts.size());
+        Assertions.assertEquals(new HashSet<>(game.legalMoves()), fromInts);
+
+        int enPassant = list.get(list.indexOf(parse("e5f6")));
+        Assertions.assertTrue(Move.isEnPassant(enPassant));
+        Assertions.assertTrue(Move.isCapture(enPassant));
+        Assertions.assertFalse(Move.isCapture(list.get(list.indexOf(parse("e5e6")))));
+    }
+
+    @Test
+    @DisplayName("Capture Generation Matches Filtered Moves")
+    public void captureGenerationMatchesFilteredMoves() {
+        Random random = new Random(14);
+        MoveList all = new MoveList();
+        MoveList captures = new MoveList();
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int plies = 0; plies < 120 && game.generateLegalMoves(all) > 0; plies++) {
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < all.size(); i++) {
+                    int move = all.get(i);
+                    if (Move.isCapture(move) || Move.isPromotion(move)) {
+                        expected.add(move);
+                    }
+                }
+                game.generateLegalCaptures(captures);
+                Set<Integer> actual = new HashSet<>();
+                for (int i = 0; i < captures.size(); i++) {
+                    actual.add(captures.get(i));
+                }
+                Assertions.assertEquals(expected, actual, "Captures differ at ply " + plies);
+                game.makeMoveUnchecked(all.get(random.nextInt(all.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Move List Reuse And Growth")
+    public void moveListReuseAndGrowth() {
+        MoveList list = new MoveList(2);
+        for (int i = 0; i < 10; i++) {
+            list.add(Move.of(i, i + 8));
+        }
+        Assertions.assertEquals(10, list.size());
+        list.swap(0, 9);
+        Assertions.assertEquals(Move.of(9, 17), list.get(0));
+        list.clear();
+        Assertions.assertTrue(list.isEmpty());
+        Assertions.assertEquals(-1, list.indexOf(Move.of(9, 17)));
+    }
+
+    private static int parse(String uci) {
+        return Move.of(Bitboards.square(uci.charAt(1) - '0', uci.charAt(0) - 'a' + 1),
+                Bitboards.square(uci.charAt(3) - '0', uci.charAt(2) - 'a' + 1));
+    }
+}
@@ -0,0 +1,92 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * Checks leaf counts against published perft results for the standard test
+ * positions and for positions built around en passant and castling edge cases.
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = new ChessGame();
+        long[] expected = {20, 400, 8902, 197281};
+        for (int depth = 1; depth <= expected.length; depth++) {
+            Assertions.assertEquals(expected[depth - 1], Perft.perft(game, depth), "Wrong count at depth " + depth);
+        }
+        Assertions.assertEquals(new ChessGame(), game, "Perft left the game modified");
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        assertPerft("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -", 3, 97862);
+    }
+
+    @Test
+    @DisplayName("Rook Endgame With En Passant Pins")
+    public void position3() {
+        assertPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -", 5, 674624);
+    }
+
+    @Test
+    @DisplayName("Promotions And Castling Rights")
+    public void position4() {
+        assertPerft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq -", 3, 9467);
+    }
+
+    @Test
+    @DisplayName("Discovered Promotion Captures")
+    public void position5() {
+        assertPerft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ -", 3, 62379);
+    }
+
+    @Test
+    @DisplayName("En Passant Edge Cases")
+    public void enPassantEdgeCases() {
+        assertPerft("3k4/3p4/8/K1P4r/8/8/8/8 b - -", 6, 1134888);
+        assertPerft("8/8/8/8/k1p4R/8/3P4/3K4 w - -", 6, 1134888);
+        assertPerft("8/8/4k3/8/2p5/8/B2P2K1/8 w - -", 6, 1015133);
+        assertPerft("8/8/1k6/2b5/2pP4/8/5K2/8 b - d3", 6, 1440467);
+    }
+
+    @Test
+    @DisplayName("Castling Edge Cases")
+    public void castlingEdgeCases() {
+        assertPerft("5k2/8/8/8/8/8/8/4K2R w K -", 6, 661072);
+        assertPerft("3k4/8/8/8/8/8/8/R3K3 w Q -", 6, 803711);
+        assertPerft("r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq -", 4, 1274206);
+        assertPerft("r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq -", 4, 1720476);
+    }
+
+    @Test
+    @DisplayName("Checks, Promotions And Stalemates")
+    public void checkEdgeCases() {
+        assertPerft("2K2r2/4P3/8/8/8/8/8/3k4 w - -", 6, 3821001);
+        assertPerft("8/8/1P2K3/8/2n5/1q6/8/5k2 b - -", 5, 1004658);
+        assertPerft("8/P1k5/K7/8/8/8/8/8 w - -", 6, 92683);
+        assertPerft("K1k5/8/P7/8/8/8/8/8 w - -", 6, 2217);
+    }
+
+    @Test
+    @DisplayName("Divide And Multi-threaded Counts Agree")
+    public void divideMatchesPerft() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> divide = Perft.divide(game, 4);
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(197281L, divide.values().stream().mapToLong(Long::longValue).sum());
+
+        Assertions.assertEquals(divide, Perft.divide(game, 4, 4), "Threaded divide differs");
+        Assertions.assertEquals(197281L, Perft.run(game, 4, 4).nodes());
+    }
+
+    private static void assertPerft(String position, int depth, long expected) {
+        Assertions.assertEquals(expected, Perft.perft(ChessGame.fromFen(position), depth), position);
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Fresh Key")
+    public void incrementalMatchesFresh() {
+        Gson gson = new Gson();
+        Random random = new Random(7);
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            ChessGame game = new ChessGame();
+            List<Long> keys = new ArrayList<>();
+            int plies = 0;
+            for (; plies < 100; plies++) {
+                List<ChessMove> moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                keys.add(game.getZobristKey());
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+
+                // A Gson copy rebuilds its key from scratch
+                ChessGame fresh = gson.fromJson(gson.toJson(game), ChessGame.class);
+                Assertions.assertEquals(fresh.getZobristKey(), game.getZobristKey(), "Key drifted at ply " + plies);
+            }
+            for (int i = plies - 1; i >= 0; i--) {
+                game.unmakeMove();
+                Assertions.assertEquals(keys.get(i), game.getZobristKey(), "Unmake did not restore key at ply " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        play(first, 1, 7, 3, 6);  // Nf3
+        play(first, 8, 7, 6, 6);  // Nf6
+        play(first, 1, 2, 3, 3);  // Nc3
+
+        ChessGame second = new ChessGame();
+        play(second, 1, 2, 3, 3);  // Nc3
+        play(second, 8, 7, 6, 6);  // Nf6
+        play(second, 1, 7, 3, 6);  // Nf3
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        Assertions.assertNotEquals(new ChessGame().getZobristKey(), first.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Side To Move And Castling Rights Change The Key")
+    public void stateChangesKey() {
+        ChessGame game = new ChessGame();
+        long start = game.getZobristKey();
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(start, game.getZobristKey(), "Side to move not hashed");
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        game.setCastlingRights(ChessGame.ALL_CASTLING & ~ChessGame.WHITE_KINGSIDE);
+        Assertions.assertNotEquals(start, game.getZobristKey(), "Castling rights not hashed");
+    }
+
+    private static void play(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null));
+    }
+}
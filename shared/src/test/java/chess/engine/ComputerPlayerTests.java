@@ -0,0 +1,113 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+import chess.eval.PieceSquareEvaluator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ComputerPlayerTests {
+
+    private static final GameClock CLOCK = GameClock.suddenDeath(3_000);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ComputerPlayer player = new ComputerPlayer(new TranspositionTable(4), new PieceSquareEvaluator(),
+            new TimeManager(0, 30));
+
+    @AfterEach
+    public void tearDown() {
+        player.cancelPonder();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Ponder Hit Turns Into The Real Search")
+    public void ponderHit() {
+        ChessGame game = new ChessGame();
+        SearchResult first = player.think(game, CLOCK);
+        game.makeMoveUnchecked(first.bestMove());
+
+        Assertions.assertTrue(player.ponder(game, first, SearchLimits.millis(60_000), executor));
+        Assertions.assertTrue(player.isPondering());
+
+        game.makeMoveUnchecked(play(game, first.pv()[1]));
+        SearchResult reply = player.think(game, CLOCK);
+
+        Assertions.assertEquals(1, player.ponderHits());
+        Assertions.assertEquals(0, player.ponderMisses());
+        Assertions.assertFalse(player.isPondering());
+        Assertions.assertTrue(legal(game, reply.bestMove()));
+        Assertions.assertTrue(player.ponderNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Ponder Miss Is Cancelled And Searched Afresh")
+    public void ponderMiss() {
+        ChessGame game = new ChessGame();
+        SearchResult first = player.think(game, CLOCK);
+        game.makeMoveUnchecked(first.bestMove());
+        Assertions.assertTrue(player.ponder(game, first, SearchLimits.millis(60_000), executor));
+
+        // Any reply but the expected one
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        int other = moves.get(0) == first.pv()[1] ? moves.get(1) : moves.get(0);
+        game.makeMoveUnchecked(other);
+        SearchResult reply = player.think(game, CLOCK);
+
+        Assertions.assertEquals(0, player.ponderHits());
+        Assertions.assertEquals(1, player.ponderMisses());
+        Assertions.assertTrue(legal(game, reply.bestMove()));
+    }
+
+    @Test
+    @DisplayName("Cancelling An Unlimited Ponder Returns Promptly")
+    public void cancelPonder() {
+        ChessGame game = new ChessGame();
+        SearchResult first = player.think(game, CLOCK);
+        game.makeMoveUnchecked(first.bestMove());
+        Assertions.assertTrue(player.ponder(game, first, SearchLimits.depth(0), executor));
+
+        long start = System.nanoTime();
+        player.cancelPonder();
+
+        Assertions.assertFalse(player.isPondering());
+        Assertions.assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("No Ponder Without Room On The Executor")
+    public void rejectedPonder() {
+        ChessGame game = new ChessGame();
+        SearchResult first = player.think(game, CLOCK);
+        game.makeMoveUnchecked(first.bestMove());
+
+        Assertions.assertFalse(player.ponder(game, first, SearchLimits.millis(1_000), command -> {
+            throw new RejectedExecutionException();
+        }));
+        Assertions.assertFalse(player.isPondering());
+
+        // Still thinks normally afterwards
+        SearchResult reply = player.think(game, CLOCK);
+        Assertions.assertTrue(legal(game, reply.bestMove()));
+    }
+
+    private static int play(ChessGame game, int move) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        return moves.get(moves.indexOf(move));
+    }
+
+    private static boolean legal(ChessGame game, int move) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        return move != Move.NONE && moves.indexOf(move) >= 0;
+    }
+}
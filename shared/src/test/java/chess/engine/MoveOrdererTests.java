@@ -0,0 +1,78 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static chess.engine.TestPositions.position;
+
+public class MoveOrdererTests {
+
+    // White: Kh1, Qd1, Nc3, Pe4; black: Ke8, Qd5, pawn b5 (defended by c6), loose pawn g4
+    private static final Object[] PIECES = {
+            "K", 1, 8, "Q", 1, 4, "N", 3, 3, "P", 4, 5,
+            "k", 8, 5, "q", 5, 4, "p", 5, 2, "p", 6, 3, "p", 4, 7
+    };
+
+    @Test
+    @DisplayName("Hash Move Then Captures By Victim And Attacker")
+    public void hashMoveThenMvvLva() {
+        ChessGame game = position(ChessGame.TeamColor.WHITE, PIECES);
+        MoveOrderer orderer = new MoveOrderer();
+        int hashMove = move(1, 8, 2, 8);
+
+        List<Integer> ordered = order(orderer, game, hashMove);
+
+        Assertions.assertEquals(hashMove, Move.squaresAndPromotion(ordered.get(0)));
+        // Queen taken by the pawn, then by the knight, then by the queen, then the g4 pawn
+        Assertions.assertEquals(move(4, 5, 5, 4), Move.squaresAndPromotion(ordered.get(1)));
+        Assertions.assertEquals(move(3, 3, 5, 4), Move.squaresAndPromotion(ordered.get(2)));
+        Assertions.assertEquals(move(1, 4, 5, 4), Move.squaresAndPromotion(ordered.get(3)));
+        Assertions.assertEquals(move(1, 4, 4, 7), Move.squaresAndPromotion(ordered.get(4)));
+        // Nxb5 loses the knight for a pawn, so it comes last
+        Assertions.assertEquals(move(3, 3, 5, 2), Move.squaresAndPromotion(ordered.get(ordered.size() - 1)));
+    }
+
+    @Test
+    @DisplayName("Killers And History Lift Quiet Moves")
+    public void killersAndHistoryLiftQuietMoves() {
+        ChessGame game = position(ChessGame.TeamColor.WHITE, PIECES);
+        MoveOrderer orderer = new MoveOrderer();
+        int killer = move(1, 4, 2, 5);
+        int historyMove = move(1, 8, 1, 7);
+        orderer.recordCutoff(killer, 0, 1, 0);
+        orderer.recordCutoff(historyMove, 5, 6, 0);
+
+        List<Integer> ordered = order(orderer, game, Move.NONE);
+
+        // Four winning captures first, then the killer, then the move with history
+        Assertions.assertEquals(killer, Move.squaresAndPromotion(ordered.get(4)));
+        Assertions.assertEquals(historyMove, Move.squaresAndPromotion(ordered.get(5)));
+
+        orderer.newSearch();
+        ordered = order(orderer, game, Move.NONE);
+        Assertions.assertEquals(historyMove, Move.squaresAndPromotion(ordered.get(4)));
+    }
+
+    private static List<Integer> order(MoveOrderer orderer, ChessGame game, int hashMove) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        orderer.score(game.getBoard(), moves, 0, hashMove, game.getTeamTurn().ordinal());
+        List<Integer> ordered = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            ordered.add(orderer.next(moves, 0, i));
+        }
+        return ordered;
+    }
+
+    private static int move(int fromRow, int fromCol, int toRow, int toCol) {
+        return Move.of(Bitboards.square(fromRow, fromCol), Bitboards.square(toRow, toCol));
+    }
+}
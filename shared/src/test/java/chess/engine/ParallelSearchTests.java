@@ -0,0 +1,68 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Threads Agree On Forced Mate")
+    public void threadsAgreeOnMate() throws InvalidMoveException {
+        // 1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6: Qxf7 is mate
+        ChessGame game = new ChessGame();
+        play(game, 2, 5, 4, 5);
+        play(game, 7, 5, 5, 5);
+        play(game, 1, 6, 4, 3);
+        play(game, 8, 2, 6, 3);
+        play(game, 1, 4, 5, 8);
+        play(game, 8, 7, 6, 6);
+
+        try (ParallelSearch search = new ParallelSearch(3, 4)) {
+            SearchResult result = search.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(new ChessMove(ChessPosition.of(5, 8), ChessPosition.of(7, 6), null),
+                    result.bestChessMove());
+            Assertions.assertEquals(1, result.mateIn());
+        }
+    }
+
+    @Test
+    @DisplayName("Stop Ends Every Thread")
+    public void stopEndsEveryThread() throws Exception {
+        try (ParallelSearch search = new ParallelSearch(2, 4)) {
+            CompletableFuture<SearchResult> running =
+                    CompletableFuture.supplyAsync(() -> search.search(new ChessGame(), new SearchLimits(0, 0, 0)));
+            Thread.sleep(200);
+            search.stop();
+
+            SearchResult result = running.get(10, TimeUnit.SECONDS);
+            Assertions.assertNotNull(result.bestChessMove());
+            Assertions.assertTrue(result.depth() >= 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Table Generation Advances Once Per Search")
+    public void generationAdvancesOnce() {
+        TranspositionTable table = new TranspositionTable(4);
+        try (ParallelSearch search = new ParallelSearch(4, table)) {
+            int before = table.generation();
+            search.search(new ChessGame(), SearchLimits.depth(4));
+            Assertions.assertEquals(before + 1, table.generation());
+            search.search(new ChessGame(), SearchLimits.depth(4));
+            Assertions.assertEquals(before + 2, table.generation());
+        }
+    }
+
+    private static void play(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null));
+    }
+}
@@ -0,0 +1,152 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveList;
+import chess.eval.MaterialEvaluator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static chess.engine.TestPositions.position;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Back Rank Mate")
+    public void findsBackRankMate() {
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 7, "R", 1, 1,
+                "k", 8, 7, "p", 7, 6, "p", 7, 7, "p", 7, 8);
+
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null),
+                result.bestChessMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Takes Hanging Queen")
+    public void takesHangingQueen() {
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 1, "R", 1, 4,
+                "k", 5, 8, "q", 8, 4);
+
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 4), ChessPosition.of(8, 4), null),
+                result.bestChessMove());
+        Assertions.assertTrue(result.score() > 0);
+    }
+
+    @Test
+    @DisplayName("Quiescence Sees The Recapture")
+    public void quiescenceSeesRecapture() {
+        // Qxd5 wins a pawn at depth 1 unless the search notices ...exd5
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 1, "Q", 1, 4,
+                "k", 8, 8, "p", 5, 4, "p", 6, 5);
+
+        Search search = new Search(new TranspositionTable(1), new MaterialEvaluator());
+        SearchResult result = search.search(game, SearchLimits.depth(1));
+
+        Assertions.assertNotEquals(new ChessMove(ChessPosition.of(1, 4), ChessPosition.of(5, 4), null),
+                result.bestChessMove());
+        // Queen against two pawns, not a pawn up
+        Assertions.assertEquals(700, result.score());
+    }
+
+    @Test
+    @DisplayName("Stops At Node Budget")
+    public void stopsAtNodeBudget() {
+        ChessGame game = new ChessGame();
+        ChessGame before = new ChessGame(game);
+
+        SearchResult result = new Search().search(game, SearchLimits.nodes(20_000));
+
+        Assertions.assertNotNull(result.bestChessMove());
+        Assertions.assertTrue(game.validMoves(result.bestChessMove().getStartPosition())
+                .contains(result.bestChessMove()));
+        Assertions.assertTrue(result.nodes() <= 21_000, "Searched " + result.nodes() + " nodes");
+        Assertions.assertEquals(result.bestMove(), result.pv()[0]);
+        Assertions.assertEquals(before, game, "Search must not change the caller's game");
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated")
+    public void noMoveWhenCheckmated() {
+        ChessGame game = position(ChessGame.TeamColor.BLACK,
+                "K", 1, 7, "R", 8, 1,
+                "k", 8, 7, "p", 7, 6, "p", 7, 7, "p", 7, 8);
+
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(Move.NONE, result.bestMove());
+        Assertions.assertNull(result.bestChessMove());
+        Assertions.assertEquals(-Search.MATE, result.score());
+    }
+
+    @Test
+    @DisplayName("Reused Search Gives Same Answer")
+    public void reusedSearchGivesSameAnswer() {
+        Search search = new Search();
+        SearchResult first = search.search(new ChessGame(), SearchLimits.depth(4));
+        SearchResult second = search.search(new ChessGame(), SearchLimits.depth(4));
+
+        Assertions.assertEquals(first.bestMove(), second.bestMove());
+        Assertions.assertEquals(first.score(), second.score());
+    }
+
+    @Test
+    @DisplayName("Multi-PV Ranks Distinct Root Moves")
+    public void multiPvRanksDistinctRootMoves() {
+        // The rook can take the queen, or the knight, which is defended indirectly
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 1, "R", 4, 4,
+                "k", 8, 8, "q", 8, 4, "n", 4, 1);
+
+        List<SearchResult> lines = new Search().searchMultiPv(game, SearchLimits.depth(3), 3);
+
+        Assertions.assertEquals(3, lines.size());
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(4, 4), ChessPosition.of(8, 4), null),
+                lines.get(0).bestChessMove());
+        // Rxa4 loses the rook to Qd1+ and Qxa4, so every other line is lost
+        Assertions.assertTrue(lines.get(1).score() < 0);
+        Set<Integer> moves = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            SearchResult line = lines.get(i);
+            Assertions.assertTrue(moves.add(line.bestMove()));
+            Assertions.assertEquals(line.bestMove(), line.pv()[0]);
+            Assertions.assertEquals(3, line.depth());
+            if (i > 0) {
+                Assertions.assertTrue(line.score() <= lines.get(i - 1).score());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Multi-PV Stops At The Number Of Legal Moves")
+    public void multiPvWithFewMoves() {
+        // A lone king in the corner with the g-file cut off has a single move
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 8,
+                "k", 8, 1, "r", 3, 7);
+
+        List<SearchResult> lines = new Search().searchMultiPv(game, SearchLimits.depth(2), 5);
+        MoveList legal = new MoveList();
+        game.generateLegalMoves(legal);
+
+        Assertions.assertEquals(legal.size(), lines.size());
+        Assertions.assertTrue(new Search().searchMultiPv(position(ChessGame.TeamColor.BLACK,
+                "K", 1, 7, "R", 8, 1,
+                "k", 8, 7, "p", 7, 6, "p", 7, 7, "p", 7, 8), SearchLimits.depth(2), 3).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.engine.TestPositions.position;
+
+public class StaticExchangeTests {
+
+    private final StaticExchange exchange = new StaticExchange();
+
+    @Test
+    @DisplayName("Pawn Takes Defended Knight")
+    public void pawnTakesDefendedKnight() {
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 1, "P", 4, 4,
+                "k", 8, 8, "n", 5, 5, "p", 6, 6);
+        Assertions.assertEquals(320 - 100, see(game, 4, 4, 5, 5));
+    }
+
+    @Test
+    @DisplayName("Queen Takes Defended Pawn")
+    public void queenTakesDefendedPawn() {
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 1, "Q", 1, 4,
+                "k", 8, 8, "p", 5, 4, "p", 6, 5);
+        Assertions.assertEquals(100 - 900, see(game, 1, 4, 5, 4));
+    }
+
+    @Test
+    @DisplayName("Rook Behind Rook Counts As X-Ray")
+    public void xrayRookBacksUpCapture() {
+        // Rd2xd5 Rxd5 Rxd5: the d1 rook only attacks d5 once the d2 rook has moved
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 8, "R", 1, 4, "R", 2, 4,
+                "k", 8, 1, "n", 5, 4, "r", 8, 4);
+        Assertions.assertEquals(320, see(game, 2, 4, 5, 4));
+
+        ChessGame alone = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 8, "R", 2, 4,
+                "k", 8, 1, "n", 5, 4, "r", 8, 4);
+        Assertions.assertEquals(320 - 500, see(alone, 2, 4, 5, 4));
+    }
+
+    @Test
+    @DisplayName("King Cannot Recapture Into Defended Square")
+    public void kingCannotRecaptureDefendedSquare() {
+        // Bxf7+ Kxf7 is illegal while the queen on h5 also hits f7
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 5, "B", 4, 3, "Q", 5, 8,
+                "k", 8, 5, "p", 7, 6);
+        Assertions.assertEquals(100, see(game, 4, 3, 7, 6));
+    }
+
+    @Test
+    @DisplayName("En Passant Wins A Pawn")
+    public void enPassantWinsPawn() {
+        ChessGame game = position(ChessGame.TeamColor.BLACK,
+                "K", 1, 1, "P", 2, 5,
+                "k", 8, 8, "p", 4, 4);
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        game.makeMoveUnchecked(moves.get(moves.indexOf(Move.of(Bitboards.square(8, 8), Bitboards.square(8, 7)))));
+        game.generateLegalMoves(moves);
+        game.makeMoveUnchecked(moves.get(moves.indexOf(Move.of(Bitboards.square(2, 5), Bitboards.square(4, 5)))));
+
+        game.generateLegalCaptures(moves);
+        int enPassant = moves.get(moves.indexOf(Move.of(Bitboards.square(4, 4), Bitboards.square(3, 5))));
+        Assertions.assertTrue(Move.isEnPassant(enPassant));
+        Assertions.assertEquals(100, exchange.evaluate(game.getBoard(), enPassant));
+    }
+
+    private int see(ChessGame game, int fromRow, int fromCol, int toRow, int toCol) {
+        MoveList captures = new MoveList();
+        game.generateLegalCaptures(captures);
+        int index = captures.indexOf(Move.of(Bitboards.square(fromRow, fromCol), Bitboards.square(toRow, toCol)));
+        Assertions.assertTrue(index >= 0, "Not a legal capture");
+        return exchange.evaluate(game.getBoard(), captures.get(index));
+    }
+}
@@ -0,0 +1,37 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+final class TestPositions {
+
+    private TestPositions() {}
+
+    /**
+     * Builds a position from (piece letter, row, column) triples; upper case is white.
+     */
+    static ChessGame position(ChessGame.TeamColor toMove, Object... pieces) {
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < pieces.length; i += 3) {
+            char letter = ((String) pieces[i]).charAt(0);
+            ChessGame.TeamColor color = Character.isUpperCase(letter)
+                    ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            ChessPiece.PieceType type = switch (Character.toLowerCase(letter)) {
+                case 'k' -> ChessPiece.PieceType.KING;
+                case 'q' -> ChessPiece.PieceType.QUEEN;
+                case 'r' -> ChessPiece.PieceType.ROOK;
+                case 'b' -> ChessPiece.PieceType.BISHOP;
+                case 'n' -> ChessPiece.PieceType.KNIGHT;
+                default -> ChessPiece.PieceType.PAWN;
+            };
+            board.addPiece(new ChessPosition((Integer) pieces[i + 1], (Integer) pieces[i + 2]),
+                    new ChessPiece(color, type));
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(toMove);
+        return game;
+    }
+}
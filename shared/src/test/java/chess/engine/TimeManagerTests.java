@@ -0,0 +1,93 @@
+package chess.engine;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.engine.TestPositions.position;
+
+public class TimeManagerTests {
+
+    private final TimeManager manager = new TimeManager(50, 30);
+
+    @Test
+    @DisplayName("Sudden Death Spreads Time Over The Game")
+    public void suddenDeath() {
+        SearchLimits limits = manager.allocate(GameClock.suddenDeath(60_050));
+
+        Assertions.assertEquals(2_000, limits.softMillis());
+        Assertions.assertEquals(8_000, limits.maxMillis());
+        Assertions.assertEquals(0, limits.maxDepth());
+        Assertions.assertEquals(0, limits.maxNodes());
+    }
+
+    @Test
+    @DisplayName("Increment Adds To The Budget")
+    public void increment() {
+        SearchLimits without = manager.allocate(GameClock.suddenDeath(60_050));
+        SearchLimits with = manager.allocate(GameClock.fischer(60_050, 2_000));
+
+        Assertions.assertEquals(without.softMillis() + 1_500, with.softMillis());
+    }
+
+    @Test
+    @DisplayName("Hard Limit Never Takes More Than A Share Of The Clock")
+    public void hardLimitIsCapped() {
+        // A big increment on a short clock must not tempt it into spending everything now
+        SearchLimits limits = manager.allocate(GameClock.fischer(3_050, 10_000));
+
+        Assertions.assertEquals(1_000, limits.maxMillis());
+        Assertions.assertTrue(limits.softMillis() <= limits.maxMillis());
+
+        // Last move before the time control may use nearly all of it
+        SearchLimits last = manager.allocate(new GameClock(10_050, 0, 1));
+        Assertions.assertEquals(9_000, last.maxMillis());
+    }
+
+    @Test
+    @DisplayName("Almost No Time Left Still Gives A Positive Budget")
+    public void almostFlagged() {
+        SearchLimits limits = manager.allocate(GameClock.suddenDeath(10));
+
+        Assertions.assertEquals(1, limits.softMillis());
+        Assertions.assertEquals(1, limits.maxMillis());
+    }
+
+    @Test
+    @DisplayName("Clock Charges Elapsed Time And Adds Increment")
+    public void clockAfterMove() {
+        GameClock clock = new GameClock(10_000, 1_000, 2).afterMove(3_000);
+
+        Assertions.assertEquals(new GameClock(8_000, 1_000, 1), clock);
+        Assertions.assertTrue(GameClock.suddenDeath(100).afterMove(500).isFlagged());
+    }
+
+    @Test
+    @DisplayName("Clocked Search Stays Within The Hard Limit")
+    public void clockedSearchRespectsHardLimit() {
+        SearchLimits limits = manager.allocate(GameClock.suddenDeath(3_050));
+
+        SearchResult result = new Search().search(new ChessGame(), limits);
+
+        Assertions.assertNotNull(result.bestChessMove());
+        Assertions.assertTrue(result.depth() >= 1);
+        // The hard limit aborts mid-iteration; allow some slack for a loaded machine
+        Assertions.assertTrue(result.nanos() / 1_000_000 < limits.maxMillis() + 250,
+                "Searched for " + result.nanos() / 1_000_000 + " ms");
+    }
+
+    @Test
+    @DisplayName("Forced Move Is Played Without Thinking")
+    public void forcedMove() {
+        // Checked by the f3 bishop with g1 and g2 covered, the king has only Kh2
+        ChessGame game = position(ChessGame.TeamColor.WHITE,
+                "K", 1, 8,
+                "k", 8, 1, "r", 3, 7, "b", 3, 6);
+
+        SearchResult result = new Search().search(game, GameClock.suddenDeath(600_000));
+
+        Assertions.assertEquals(1, result.depth());
+        Assertions.assertNotNull(result.bestChessMove());
+    }
+}
@@ -0,0 +1,101 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Store And Probe Round Trip")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = new ChessGame().getZobristKey();
+        int move = Move.of(12, 28);
+
+        Assertions.assertEquals(0L, table.probe(key));
+        table.store(key, move, -137, 7, TranspositionTable.LOWER, 3);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-137, TranspositionTable.score(entry, 5));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0L, table.probe(key ^ 1));
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Relative To The Stored Position")
+    public void mateScoresAdjustForPly() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        // Found at ply 4: mate 3 plies after this position
+        table.store(key, Move.NONE, Search.MATE - 7, 3, TranspositionTable.EXACT, 4);
+
+        // Probed from ply 2 the same mate is 5 plies from the root
+        Assertions.assertEquals(Search.MATE - 5, TranspositionTable.score(table.probe(key), 2));
+    }
+
+    @Test
+    @DisplayName("Size Follows Memory Budget")
+    public void sizeFollowsBudget() {
+        Assertions.assertEquals(65_536, new TranspositionTable(1).capacity());
+        Assertions.assertEquals(524_288, new TranspositionTable(12).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Produce Mismatched Entries")
+    public void concurrentWritersStayConsistent() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        // Few keys so the writers keep colliding on the same buckets
+        long[] keys = new SplittableRandom(12).longs(64).toArray();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int writer = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200_000; i++) {
+                        int k = (i * 7 + writer) & 63;
+                        // Depth encodes the key so a torn entry would be detected
+                        table.store(keys[k], Move.NONE, writer, k, TranspositionTable.EXACT, 0);
+                        long entry = table.probe(keys[(k + 1) & 63]);
+                        if (entry != 0) {
+                            Assertions.assertEquals((k + 1) & 63, TranspositionTable.depth(entry));
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(List.of(), failures);
+    }
+
+    @Test
+    @DisplayName("Shared Table Speeds Up A Repeated Search")
+    public void sharedTableSpeedsUpSearch() {
+        TranspositionTable table = new TranspositionTable(8);
+        SearchResult cold = new Search(table).search(new ChessGame(), SearchLimits.depth(5));
+        SearchResult warm = new Search(table).search(new ChessGame(), SearchLimits.depth(5));
+
+        Assertions.assertEquals(cold.score(), warm.score());
+        Assertions.assertTrue(warm.nodes() < cold.nodes(),
+                "Warm search visited " + warm.nodes() + " nodes, cold " + cold.nodes());
+    }
+}
@@ -0,0 +1,114 @@
+package chess.eval;
+
+import chess.ChessGame;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class NnueEvaluatorTests {
+
+    // Not a multiple of any vector length, so the scalar tails are exercised too
+    private static final int HIDDEN = 40;
+
+    @Test
+    @DisplayName("Incremental Accumulators Match Full Refresh")
+    public void incrementalMatchesFullRefresh() {
+        NnueEvaluator evaluator = new NnueEvaluator(randomNetwork(17));
+        Random random = new Random(17);
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            evaluator.attach(game.getBoard());
+            int plies = 0;
+            for (; plies < 100 && game.generateLegalMoves(moves) > 0; plies++) {
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+                Assertions.assertEquals(evaluator.evaluateFullRefresh(game), evaluator.evaluate(game),
+                        "Accumulators drifted at ply " + plies);
+            }
+            for (; plies > 0; plies--) {
+                game.unmakeMove();
+                Assertions.assertEquals(evaluator.evaluateFullRefresh(game), evaluator.evaluate(game));
+            }
+            evaluator.detach(game.getBoard());
+        }
+    }
+
+    @Test
+    @DisplayName("Vector Kernel Matches Scalar Kernel")
+    public void vectorMatchesScalar() {
+        NnueEvaluator vector = new NnueEvaluator(randomNetwork(3));
+        Assumptions.assumeTrue(vector.isVectorized(), "jdk.incubator.vector is not available");
+        NnueEvaluator scalar = new NnueEvaluator(randomNetwork(3), new ScalarKernel());
+
+        Random random = new Random(3);
+        MoveList moves = new MoveList();
+        ChessGame game = new ChessGame();
+        for (int ply = 0; ply < 60 && game.generateLegalMoves(moves) > 0; ply++) {
+            Assertions.assertEquals(scalar.evaluate(game), vector.evaluate(game));
+            game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+        }
+    }
+
+    @Test
+    @DisplayName("Symmetric Position Scores The Same For Either Side To Move")
+    public void symmetricPosition() {
+        Evaluator evaluator = new NnueEvaluator(randomNetwork(5));
+        ChessGame game = new ChessGame();
+        int white = evaluator.evaluate(game);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(white, evaluator.evaluate(game));
+    }
+
+    @Test
+    @DisplayName("Network Survives A Write And Read")
+    public void writeAndRead() throws IOException {
+        NnueNetwork network = randomNetwork(11);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        network.write(out);
+        Assertions.assertEquals(12 + 2L * (NnueNetwork.FEATURES * HIDDEN + 3 * HIDDEN) + 4, out.size());
+
+        NnueNetwork loaded = NnueNetwork.read(new ByteArrayInputStream(out.toByteArray()));
+        Assertions.assertEquals(HIDDEN, loaded.hiddenSize());
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(new NnueEvaluator(network).evaluate(game), new NnueEvaluator(loaded).evaluate(game));
+    }
+
+    @Test
+    @DisplayName("Bad Network Files Are Rejected")
+    public void badFilesRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        randomNetwork(1).write(out);
+        byte[] bytes = out.toByteArray();
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        Assertions.assertThrows(IOException.class, () -> NnueNetwork.read(new ByteArrayInputStream(truncated)));
+
+        bytes[0] = 'X';
+        Assertions.assertThrows(IOException.class, () -> NnueNetwork.read(new ByteArrayInputStream(bytes)));
+    }
+
+    private static NnueNetwork randomNetwork(long seed) {
+        Random random = new Random(seed);
+        short[] featureWeights = new short[NnueNetwork.FEATURES * HIDDEN];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(129) - 64);
+        }
+        short[] featureBiases = new short[HIDDEN];
+        for (int i = 0; i < HIDDEN; i++) {
+            featureBiases[i] = (short) (random.nextInt(201) - 100);
+        }
+        short[] outputWeights = new short[2 * HIDDEN];
+        for (int i = 0; i < outputWeights.length; i++) {
+            outputWeights[i] = (short) (random.nextInt(257) - 128);
+        }
+        return new NnueNetwork(HIDDEN, featureWeights, featureBiases, outputWeights, random.nextInt(2001) - 1000);
+    }
+}
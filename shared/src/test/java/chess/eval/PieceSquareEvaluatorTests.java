@@ -0,0 +1,98 @@
+package chess.eval;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class PieceSquareEvaluatorTests {
+
+    @Test
+    @DisplayName("Incremental Score Matches Full Scan")
+    public void incrementalMatchesFullScan() {
+        Random random = new Random(16);
+        PieceSquareEvaluator attached = new PieceSquareEvaluator();
+        PieceSquareEvaluator scanning = new PieceSquareEvaluator();
+        MoveList moves = new MoveList();
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            ChessGame game = new ChessGame();
+            attached.attach(game.getBoard());
+            int plies = 0;
+            for (; plies < 120 && game.generateLegalMoves(moves) > 0; plies++) {
+                game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+                Assertions.assertEquals(scanning.evaluate(new ChessGame(game)), attached.evaluate(game),
+                        "Score drifted at ply " + plies);
+            }
+            for (; plies > 0; plies--) {
+                game.unmakeMove();
+                Assertions.assertEquals(scanning.evaluate(new ChessGame(game)), attached.evaluate(game));
+            }
+            attached.detach(game.getBoard());
+            Assertions.assertNull(game.getBoard().getListener());
+        }
+    }
+
+    @Test
+    @DisplayName("Start Position Is Level")
+    public void startPositionIsLevel() throws InvalidMoveException {
+        Evaluator evaluator = new PieceSquareEvaluator();
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, evaluator.evaluate(game));
+
+        // 1. e4 improves White's pawn, so Black (to move) is worse off
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertTrue(evaluator.evaluate(game) < 0);
+        Assertions.assertEquals(-evaluator.evaluate(game), evaluator.whiteScore(game));
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores The Same For The Other Side")
+    public void mirroredPositionIsSymmetric() {
+        ChessBoard board = new ChessBoard();
+        ChessBoard mirrored = new ChessBoard();
+        place(board, mirrored, 1, 7, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        place(board, mirrored, 8, 3, ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        place(board, mirrored, 4, 4, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+        place(board, mirrored, 6, 2, ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        place(board, mirrored, 7, 8, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+
+        Evaluator evaluator = new PieceSquareEvaluator();
+        Assertions.assertEquals(evaluator.whiteScore(game(board)), -evaluator.whiteScore(game(mirrored)));
+    }
+
+    @Test
+    @DisplayName("Endgame Tables Take Over As Material Comes Off")
+    public void endgameTablesTakeOver() {
+        // A lone king wants the centre in the endgame but a corner in the middlegame
+        ChessBoard centre = new ChessBoard();
+        centre.addPiece(ChessPosition.of(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        centre.addPiece(ChessPosition.of(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        ChessBoard corner = new ChessBoard();
+        corner.addPiece(ChessPosition.of(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        corner.addPiece(ChessPosition.of(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+
+        Evaluator evaluator = new PieceSquareEvaluator();
+        Assertions.assertTrue(evaluator.whiteScore(game(centre)) > evaluator.whiteScore(game(corner)));
+    }
+
+    private static void place(ChessBoard board, ChessBoard mirrored, int row, int col,
+                              ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        board.addPiece(ChessPosition.of(row, col), new ChessPiece(color, type));
+        ChessGame.TeamColor other = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        mirrored.addPiece(ChessPosition.of(9 - row, col), new ChessPiece(other, type));
+    }
+
+    private static ChessGame game(ChessBoard board) {
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        return game;
+    }
+}
@@ -0,0 +1,189 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PgnTests {
+
+    @Test
+    @DisplayName("San Disambiguation, Castling And Promotion")
+    public void sanFormat() {
+        ChessGame knights = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        Assertions.assertEquals("Nbd2", San.format(knights, San.parse(knights, "Nbd2")));
+        Assertions.assertEquals("Nfd2", San.format(knights, San.parse(knights, "Nfd2")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(knights, "Nd2"));
+
+        ChessGame rooks = ChessGame.fromFen("4k3/8/8/R7/8/8/8/R3K3 w Q - 0 1");
+        Assertions.assertEquals("R1a3", San.format(rooks, San.parse(rooks, "R1a3")));
+        Assertions.assertEquals("O-O-O", San.format(rooks, San.parse(rooks, "O-O-O")));
+        ChessGame capture = ChessGame.fromFen("4k3/8/8/r7/8/8/8/R3K3 w - - 0 1");
+        Assertions.assertEquals("Rxa5", San.format(capture, San.parse(capture, "Rxa5")));
+
+        ChessGame promotion = ChessGame.fromFen("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals("b8=Q+", San.format(promotion, San.parse(promotion, "b8=Q")));
+        Assertions.assertEquals("b8=N", San.format(promotion, San.parse(promotion, "b8N")));
+
+        ChessGame enPassant = ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+        Assertions.assertEquals("exd6", San.format(enPassant, San.parse(enPassant, "exd6")));
+
+        ChessGame mate = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R3K3 w - - 0 1");
+        Assertions.assertEquals("Ra8#", San.format(mate, San.parse(mate, "Ra8")));
+    }
+
+    @Test
+    @DisplayName("San Variants Seen In The Wild")
+    public void sanVariants() {
+        ChessGame game = new ChessGame();
+        int nf3 = San.parse(game, "Nf3");
+        Assertions.assertEquals(nf3, San.parse(game, "Ng1-f3"));
+        Assertions.assertEquals(nf3, San.parse(game, "Nf3!?"));
+        Assertions.assertEquals(nf3, San.parse(game, "Ngf3"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Nf4"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(game, "e5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Zf3"));
+
+        ChessGame castle = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        Assertions.assertEquals(San.parse(castle, "O-O"), San.parse(castle, "0-0+"));
+    }
+
+    @Test
+    @DisplayName("Reader Skips Comments, Variations And Annotations")
+    public void readerSkipsAnnotations() throws IOException {
+        String pgn = """
+                % escaped line
+                [Event "Test \\"quoted\\""]
+                [White "A"]
+                [Black "B"]
+                [Result "1-0"]
+
+                1. e4 {best by test} e5 (1... c5 2. Nf3 (2. c3) d6) 2.Nf3 $1 Nc6 ; a comment
+                3. Bb5 a6?! 4. Ba4 Nf6 5. O-O 1-0
+
+                [Event "Second"]
+                [FEN "4k3/8/8/8/8/8/8/4K2R b K - 0 30"]
+
+                30... Kd7 31. O-O *
+                """;
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        PgnGame first = reader.next();
+        Assertions.assertEquals("Test \"quoted\"", first.tag("Event"));
+        Assertions.assertEquals("1-0", first.result());
+        Assertions.assertEquals(9, first.moves().length);
+        Assertions.assertEquals("r1bqkb1r/1ppp1ppp/p1n2n2/4p3/B3P3/5N2/PPPP1PPP/RNBQ1RK1 b kq - 3 5",
+                first.finalPosition().toFen());
+
+        PgnGame second = reader.next();
+        Assertions.assertEquals("*", second.result());
+        Assertions.assertEquals("8/3k4/8/8/8/8/8/5RK1 b - - 2 31", second.finalPosition().toFen());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Unreadable Game Is Skipped")
+    public void unreadableGameSkipped() throws IOException {
+        String pgn = """
+                [Event "Bad"]
+
+                1. e4 e5 2. Ke3 Nc6 (2... Nf6) 1-0
+
+                [Event "Good"]
+
+                1. d4 d5 1/2-1/2
+                """;
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        PgnException error = Assertions.assertThrows(PgnException.class, reader::next);
+        Assertions.assertEquals(3, error.lineNumber());
+
+        PgnGame good = reader.next();
+        Assertions.assertEquals("Good", good.tag("Event"));
+        Assertions.assertEquals(2, good.moves().length);
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Written Games Read Back The Same")
+    public void writeAndRead() throws IOException {
+        List<PgnGame> games = randomGames(40, 7);
+        StringWriter text = new StringWriter();
+        write(games, text);
+
+        PgnReader reader = new PgnReader(new StringReader(text.toString()));
+        for (PgnGame expected : games) {
+            PgnGame read = reader.next();
+            Assertions.assertArrayEquals(expected.moves(), read.moves());
+            Assertions.assertEquals(expected.result(), read.result());
+            Assertions.assertEquals(expected.tag("Round"), read.tag("Round"));
+            Assertions.assertEquals(expected.finalPosition(), read.finalPosition());
+        }
+        Assertions.assertNull(reader.next());
+        for (String line : text.toString().split("\n")) {
+            Assertions.assertTrue(line.length() <= PgnWriter.LINE_LENGTH, line);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel File Read Finds Every Game")
+    public void parallelRead(@TempDir Path directory) throws IOException {
+        List<PgnGame> games = randomGames(300, 11);
+        Path file = directory.resolve("games.pgn");
+        try (Writer out = Files.newBufferedWriter(file)) {
+            write(games, out);
+            out.write("[Event \"Broken\"]\n\n1. e4 e5 2. Qxf7 1-0\n\n");
+        }
+
+        long expectedPlies = games.stream().mapToLong(game -> game.moves().length).sum();
+        for (int threads : new int[]{1, 4}) {
+            AtomicLong plies = new AtomicLong();
+            PgnReader.Result result = PgnReader.readFile(file, threads, game -> plies.addAndGet(game.moves().length));
+            Assertions.assertEquals(games.size(), result.games(), threads + " threads");
+            Assertions.assertEquals(1, result.errors(), threads + " threads");
+            Assertions.assertEquals(expectedPlies, plies.get(), threads + " threads");
+        }
+    }
+
+    private static void write(List<PgnGame> games, Writer out) throws IOException {
+        PgnWriter writer = new PgnWriter(out);
+        for (PgnGame game : games) {
+            writer.write(game);
+        }
+        writer.flush();
+    }
+
+    private static List<PgnGame> randomGames(int count, long seed) {
+        Random random = new Random(seed);
+        MoveList moves = new MoveList();
+        List<PgnGame> games = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            ChessGame game = new ChessGame();
+            int[] played = new int[1 + random.nextInt(120)];
+            int plies = 0;
+            while (plies < played.length && game.generateLegalMoves(moves) > 0) {
+                played[plies] = moves.get(random.nextInt(moves.size()));
+                game.makeMoveUnchecked(played[plies++]);
+            }
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "Random");
+            tags.put("Round", Integer.toString(n + 1));
+            games.add(new PgnGame(tags, Arrays.copyOf(played, plies), n % 3 == 0 ? "1/2-1/2" : "*"));
+        }
+        return games;
+    }
+}